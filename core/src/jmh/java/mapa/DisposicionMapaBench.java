@@ -0,0 +1,61 @@
+package mapa;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas que se hacen por frame / por cambio de sala sobre un piso ya generado.
+ * Cada operación recorre TODAS las salas (y direcciones), así el número es comparable
+ * aunque cambie el largo del camino.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DisposicionMapaBench {
+
+    private static final Habitacion[] SALAS = Habitacion.values();
+    private static final Direccion[] DIRS = Direccion.values();
+
+    private DisposicionMapa piso;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        SemillasBench.silenciar();
+        piso = SemillasBench.disposiciones(3)[0];
+        for (Habitacion h : piso.getCamino()) piso.descubrir(h);
+    }
+
+    @Benchmark
+    public void destinoEnPiso(Blackhole bh) {
+        for (Habitacion h : SALAS)
+            for (Direccion d : DIRS)
+                bh.consume(piso.getDestinoEnPiso(h, d));
+    }
+
+    @Benchmark
+    public void vecinasEnPiso(Blackhole bh) {
+        for (Habitacion h : SALAS) bh.consume(piso.getVecinasEnPiso(h));
+    }
+
+    @Benchmark
+    public void conexionesEnPiso(Blackhole bh) {
+        for (Habitacion h : piso.getCamino()) bh.consume(piso.getConexionesEnPiso(h));
+    }
+
+    @Benchmark
+    public void salaActivaYDescubierta(Blackhole bh) {
+        for (Habitacion h : SALAS) {
+            bh.consume(piso.esSalaActiva(h));
+            bh.consume(piso.estaDescubierta(h));
+        }
+    }
+
+    @Benchmark
+    public int recorrerDescubiertas() {
+        int n = 0;
+        for (Habitacion h : piso.getDescubiertas()) n += h.ordinal();
+        return n;
+    }
+}
@@ -0,0 +1,38 @@
+package mapa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GeneradorMapa.generar por nivel, con el grafo ya construido
+ * (el costo del grafo se mide aparte en GrafoPuertasBench).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeneradorMapaBench {
+
+    @Param({"1", "2", "3"})
+    public int nivel;
+
+    private GrafoPuertas[] grafos;
+    private GeneradorMapa.Configuracion[] configuraciones;
+    private int i;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        SemillasBench.silenciar();
+        grafos = SemillasBench.grafos();
+        configuraciones = new GeneradorMapa.Configuracion[grafos.length];
+        for (int k = 0; k < grafos.length; k++) {
+            configuraciones[k] = SemillasBench.configuracion(nivel, SemillasBench.SEMILLAS[k]);
+        }
+    }
+
+    @Benchmark
+    public DisposicionMapa generar() {
+        int k = i++ & (grafos.length - 1);
+        return new GeneradorMapa(configuraciones[k], grafos[k]).generar();
+    }
+}
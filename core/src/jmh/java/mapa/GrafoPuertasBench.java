@@ -0,0 +1,26 @@
+package mapa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Construcción del grafo de puertas (emparejar todas las puertas del catálogo). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GrafoPuertasBench {
+
+    private int i;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        SemillasBench.silenciar();
+    }
+
+    @Benchmark
+    public GrafoPuertas construir() {
+        long semilla = SemillasBench.SEMILLAS[i++ & (SemillasBench.SEMILLAS.length - 1)];
+        return new GrafoPuertas(SemillasBench.CATALOGO, new Random(semilla));
+    }
+}
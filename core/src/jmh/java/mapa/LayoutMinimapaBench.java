@@ -0,0 +1,29 @@
+package mapa;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Armado del layout del minimapa a partir de un piso ya generado. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LayoutMinimapaBench {
+
+    @Param({"1", "3"})
+    public int nivel;
+
+    private DisposicionMapa[] pisos;
+    private int i;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        SemillasBench.silenciar();
+        pisos = SemillasBench.disposiciones(nivel);
+    }
+
+    @Benchmark
+    public LayoutMinimapa construir() {
+        return LayoutMinimapa.construir(pisos[i++ & (pisos.length - 1)]);
+    }
+}
@@ -0,0 +1,50 @@
+package mapa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos fijos compartidos por los benchmarks: siempre las mismas semillas,
+ * así dos corridas (o dos commits) miden exactamente el mismo trabajo.
+ */
+final class SemillasBench {
+
+    /** Semillas fijas. Ninguna cae en fallback en los niveles 1..3. */
+    static final long[] SEMILLAS = {
+        1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L,
+        42L, 1234L, 9999L, 31337L, 65536L, 123456789L, 987654321L, 0x5EEDL
+    };
+
+    static final List<Habitacion> CATALOGO = List.copyOf(Arrays.asList(Habitacion.values()));
+
+    private SemillasBench() {}
+
+    /** El generador loguea por RegistroMapa; en un benchmark no queremos I/O. */
+    static void silenciar() {
+        RegistroMapa.activo = false;
+    }
+
+    static GrafoPuertas[] grafos() {
+        GrafoPuertas[] out = new GrafoPuertas[SEMILLAS.length];
+        for (int i = 0; i < SEMILLAS.length; i++) out[i] = new GrafoPuertas(CATALOGO, new Random(SEMILLAS[i]));
+        return out;
+    }
+
+    static DisposicionMapa[] disposiciones(int nivel) {
+        List<DisposicionMapa> out = new ArrayList<>();
+        GrafoPuertas[] grafos = grafos();
+        for (int i = 0; i < SEMILLAS.length; i++) {
+            out.add(new GeneradorMapa(configuracion(nivel, SEMILLAS[i]), grafos[i]).generar());
+        }
+        return out.toArray(new DisposicionMapa[0]);
+    }
+
+    static GeneradorMapa.Configuracion configuracion(int nivel, long semilla) {
+        GeneradorMapa.Configuracion cfg = new GeneradorMapa.Configuracion();
+        cfg.nivel = nivel;
+        cfg.semilla = semilla;
+        return cfg;
+    }
+}
@@ -0,0 +1,113 @@
+package entidades;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import mapa.Habitacion;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Cola de dibujo de entidades: solo las que caen dentro de la sala actual, ordenadas por
+ * la Y de los pies (más arriba = más atrás, se dibuja primero).
+ *
+ * - La cola se conserva entre frames: las entidades se mueven poco, así que llega casi
+ *   ordenada y el insertion sort es ~O(n). Las que entran nuevas se agregan al final.
+ * - A igual Y se respeta el orden anterior (el sort es estable): no hay parpadeo.
+ * - Cuenta por frame cuántas se dibujaron y cuántas se descartaron por estar fuera.
+ *
+ * Solo dibuja: el update de los sprites sigue siendo para todos (la animación de muerte
+ * tiene que terminar aunque el enemigo no se vea).
+ */
+public class ColaRenderEntidades {
+
+    private SpritesEntidad[] cola = new SpritesEntidad[16];
+    private float[] claves = new float[16];
+    private int tamanio;
+
+    private int frame;
+    private int dibujadas;
+    private int descartadas;
+
+    /** Arma la cola del frame con los sprites que tocan la sala. */
+    public void armar(Collection<SpritesEntidad> sprites, Habitacion sala) {
+        frame++;
+        dibujadas = 0;
+        descartadas = 0;
+
+        if (sala == null) {
+            Arrays.fill(cola, 0, tamanio, null);
+            tamanio = 0;
+            descartadas = sprites.size();
+            return;
+        }
+
+        float x0 = sala.gridX * sala.ancho;
+        float y0 = sala.gridY * sala.alto;
+
+        // 1) marcar visibles
+        for (SpritesEntidad s : sprites) {
+            if (s != null && s.tocaRect(x0, y0, sala.ancho, sala.alto)) s.marcaVisible = frame;
+            else descartadas++;
+        }
+
+        // 2) compactar la cola anterior conservando su orden (se van las que dejaron de verse)
+        int n = 0;
+        for (int i = 0; i < tamanio; i++) {
+            SpritesEntidad s = cola[i];
+            if (s.marcaVisible != frame) continue;
+            s.marcaEnCola = frame;
+            cola[n++] = s;
+        }
+        Arrays.fill(cola, n, tamanio, null);
+        tamanio = n;
+
+        // 3) las visibles que no estaban, al final
+        for (SpritesEntidad s : sprites) {
+            if (s == null || s.marcaVisible != frame || s.marcaEnCola == frame) continue;
+            s.marcaEnCola = frame;
+            agregar(s);
+        }
+
+        ordenar();
+    }
+
+    /** Dibuja la cola (batch ya abierto). */
+    public void dibujar(SpriteBatch batch) {
+        for (int i = 0; i < tamanio; i++) cola[i].render(batch);
+        dibujadas = tamanio;
+    }
+
+    public int getDibujadas() {
+        return dibujadas;
+    }
+
+    public int getDescartadas() {
+        return descartadas;
+    }
+
+    private void agregar(SpritesEntidad s) {
+        if (tamanio == cola.length) {
+            cola = Arrays.copyOf(cola, tamanio * 2);
+            claves = Arrays.copyOf(claves, tamanio * 2);
+        }
+        cola[tamanio++] = s;
+    }
+
+    /** Insertion sort por pieY descendente. Con datos casi ordenados casi no mueve nada. */
+    private void ordenar() {
+        for (int i = 0; i < tamanio; i++) claves[i] = cola[i].pieY();
+
+        for (int i = 1; i < tamanio; i++) {
+            float k = claves[i];
+            SpritesEntidad s = cola[i];
+            int j = i - 1;
+            while (j >= 0 && claves[j] < k) {
+                claves[j + 1] = claves[j];
+                cola[j + 1] = cola[j];
+                j--;
+            }
+            claves[j + 1] = k;
+            cola[j + 1] = s;
+        }
+    }
+}
@@ -10,6 +10,8 @@ import com.badlogic.gdx.physics.box2d.*;
 
 import mapa.Habitacion;
 
+import java.util.*;
+
 public class EnemigosDesdeTiled {
 
     // Ajustes base (los podés tunear después)
@@ -40,18 +42,28 @@ public class EnemigosDesdeTiled {
         if (map == null || world == null || gestor == null) return;
         if (salaActual == null) return;
 
+        List<SpawnEnemigo> spawns = leerSpawns(map).get(salaActual);
+        crearEnemigos(spawns, salaActual, world, gestor);
+    }
+
+    /**
+     * Lee la capa "enemigos" UNA vez y agrupa los spawns por sala.
+     * El resultado es solo datos: se puede filtrar/copiar desde otro hilo.
+     */
+    public static Map<Habitacion, List<SpawnEnemigo>> leerSpawns(TiledMap map) {
+        Map<Habitacion, List<SpawnEnemigo>> out = new EnumMap<>(Habitacion.class);
+        if (map == null) return out;
+
         MapLayer layer = map.getLayers().get(LAYER_ENEMIGOS);
-        if (layer == null) return;
+        if (layer == null) return out;
 
         for (MapObject obj : layer.getObjects()) {
 
             // Por simplicidad: usamos RectangleMapObject
             if (!(obj instanceof RectangleMapObject)) continue;
 
-            // ✅ FILTRO POR SALA (nuevo)
             Habitacion salaDelEnemigo = leerSala(obj);
             if (salaDelEnemigo == null) continue;
-            if (salaDelEnemigo != salaActual) continue;
 
             Rectangle rect = ((RectangleMapObject) obj).getRectangle();
 
@@ -63,14 +75,30 @@ public class EnemigosDesdeTiled {
             float velocidad = getFloat(obj, "velocidad", 120f);
             int jugadorObjetivo = getInt(obj, "jugadorObjetivo", 0);
 
+            out.computeIfAbsent(salaDelEnemigo, k -> new ArrayList<>())
+                .add(new SpawnEnemigo(x, y, nombre, velocidad, jugadorObjetivo));
+        }
+        return out;
+    }
+
+    /** Crea body + Enemigo para cada spawn y los registra en la sala indicada. */
+    public static void crearEnemigos(
+        List<SpawnEnemigo> spawns,
+        Habitacion sala,
+        World world,
+        GestorDeEntidades gestor
+    ) {
+        if (spawns == null || world == null || gestor == null || sala == null) return;
+
+        for (SpawnEnemigo sp : spawns) {
             // Crear body + fixture
-            Body body = crearBodyEnemigo(world, x, y);
+            Body body = crearBodyEnemigo(world, sp.x(), sp.y());
 
             // Crear instancia Enemigo
-            Enemigo enemigo = new Enemigo(nombre, velocidad, body, jugadorObjetivo);
+            Enemigo enemigo = new Enemigo(sp.nombre(), sp.velocidad(), body, sp.jugadorObjetivo());
 
             // Registrar en gestor y asociar a sala
-            gestor.registrarEnemigo(salaActual, enemigo);
+            gestor.registrarEnemigo(sala, enemigo);
         }
     }
 
@@ -1,8 +1,9 @@
 package entidades;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.physics.box2d.*;
+import graficos.PincelFormas;
+import mapa.ConjuntoSalas;
 import mapa.Habitacion;
 import mapa.PuertaVisual;
 import mapa.TipoSala;
@@ -23,7 +24,7 @@ public class GestorDeEntidades {
     private final Map<Item, Body> cuerposItems = new HashMap<>();
 
     // Para no respawnear infinitamente ítems de BOTIN
-    private final Set<Habitacion> botinesConItem = new HashSet<>();
+    private final ConjuntoSalas.Mutable botinesConItem = ConjuntoSalas.mutable();
 
     // ===================== ENEMIGOS =====================
     // Enemigos vivos en el mundo (no tienen vida, se limpian por evento/puzzle o cambio de sala)
@@ -219,13 +220,13 @@ public class GestorDeEntidades {
         puertasPorSala.computeIfAbsent(sala, k -> new ArrayList<>()).add(pv);
     }
 
-    public void renderPuertas(ShapeRenderer sr, Habitacion salaActual) {
-        if (sr == null || salaActual == null) return;
+    public void renderPuertas(PincelFormas pincel, Habitacion salaActual) {
+        if (pincel == null || salaActual == null) return;
 
         List<PuertaVisual> puertas = puertasPorSala.get(salaActual);
         if (puertas == null) return;
 
-        for (PuertaVisual p : puertas) p.render(sr);
+        for (PuertaVisual p : puertas) p.render(pincel);
     }
 
     // ===================== ITEMS / UPDATE =====================
@@ -237,7 +238,7 @@ public class GestorDeEntidades {
     }
 
     private void intentarSpawnearItemEnBotin(Habitacion salaBotin) {
-        if (botinesConItem.contains(salaBotin)) return;
+        if (botinesConItem.contiene(salaBotin)) return;
 
         Item item = ItemTipo.generarAleatorioPorRareza();
         if (item == null) return;
@@ -267,7 +268,7 @@ public class GestorDeEntidades {
 
         itemsMundo.add(item);
         cuerposItems.put(item, body);
-        botinesConItem.add(salaBotin);
+        botinesConItem.agregar(salaBotin);
     }
 
     /** ✅ Coop real: el item se aplica al jugador que lo recogió */
@@ -285,6 +286,21 @@ public class GestorDeEntidades {
         itemsMundo.remove(item);
     }
 
+    /**
+     * Limpia todo lo que depende del piso (puertas visuales, ítems y registro de botines)
+     * para poder cargar otro. Los enemigos se limpian aparte con eliminarTodosLosEnemigos().
+     */
+    public void limpiarPiso() {
+        puertasPorSala.clear();
+
+        for (Body b : cuerposItems.values()) {
+            if (b != null) world.destroyBody(b);
+        }
+        cuerposItems.clear();
+        itemsMundo.clear();
+        botinesConItem.limpiar();
+    }
+
     // ===================== RENDER =====================
 
     public void render(SpriteBatch batch) {
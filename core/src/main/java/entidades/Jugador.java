@@ -23,6 +23,10 @@ public class Jugador extends Entidad {
     // Inventario simple (ítems pasivos)
     private final List<Item> objetos = new ArrayList<>();
 
+    // Sube cada vez que cambia algo que muestra el HUD (vida, vida máxima, inventario).
+    // El HUD compara contra la última versión que dibujó en vez de rearmar el texto cada frame.
+    private int versionEstado;
+
     public Jugador(int id, String nombre,
                    Genero generoInicial,
                    Estilo estiloInicial) {
@@ -80,6 +84,7 @@ public class Jugador extends Entidad {
     public void setVida(int vida) {
         if (vida < 0) vida = 0;
         if (vida > vidaMaxima) vida = vidaMaxima;
+        if (this.vida != vida) versionEstado++;
         this.vida = vida;
     }
 
@@ -93,6 +98,12 @@ public class Jugador extends Entidad {
         if (vida > vidaMaxima) {
             vida = vidaMaxima;
         }
+        versionEstado++;
+    }
+
+    /** Contador de cambios de vida / inventario (para cachear lo que se dibuja). */
+    public int getVersionEstado() {
+        return versionEstado;
     }
 
     // ------------------ Física ------------------
@@ -115,6 +126,7 @@ public class Jugador extends Entidad {
         if (!viva || enMuerte || inmune) return;
 
         vida--;
+        versionEstado++;
         enMuerte = true;
         puedeMoverse = false;
         tiempoMuerte = 0f;
@@ -178,16 +190,18 @@ public class Jugador extends Entidad {
     public void agregarObjeto(Item item) {
         if (item == null) return;
         objetos.add(item);
+        versionEstado++;
     }
 
     public void removerObjeto(Item item) {
-        objetos.remove(item);
+        if (objetos.remove(item)) versionEstado++;
     }
 
     public void reaplicarEfectosDeItems() {
         // stats base del jugador
         this.vidaMaxima = 3;
         this.velocidad = 200f;
+        versionEstado++;
 
         if (vida > vidaMaxima) vida = vidaMaxima;
 
@@ -0,0 +1,7 @@
+package entidades;
+
+/**
+ * Datos de un enemigo leído de Tiled (capa "enemigos"), sin body ni instancia.
+ * x,y = centro del spawn en píxeles.
+ */
+public record SpawnEnemigo(float x, float y, String nombre, float velocidad, int jugadorObjetivo) {}
@@ -1,11 +1,10 @@
 package entidades;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.math.Vector2;
+import graficos.CacheSprites;
 
 public abstract class SpritesEntidad {
 
@@ -21,18 +20,16 @@ public abstract class SpritesEntidad {
 
     protected float stateTime = 0f;
 
-    protected Texture texQuieto;
-    protected Texture texMovimiento;
+    // Hojas compartidas (CacheSprites): la textura y la animación son las mismas para todas
+    // las instancias con la misma región; cada sprite solo lleva su stateTime.
+    protected CacheSprites.Hoja hojaQuieto;
+    protected CacheSprites.Hoja hojaMovimiento;
+    protected CacheSprites.Hoja hojaMuerte;
 
-    protected Texture texMuerte;
     protected boolean enMuerte = false;
     protected boolean muerteFinalizada = false;
     protected float muerteTime = 0f;
 
-    protected Array<TextureRegion> framesQuieto;
-    protected Array<TextureRegion> framesMovimiento;
-    protected Array<TextureRegion> framesMuerte;
-
     protected Animation<TextureRegion> animQuieto;
     protected Animation<TextureRegion> animMovimiento;
     protected Animation<TextureRegion> animMuerte;
@@ -43,56 +40,89 @@ public abstract class SpritesEntidad {
 
     protected boolean ultimaMiradaDerecha = true;
 
+    // Posición interpolada para dibujar (la pone Partida cada frame); si no hay, se usa la del body
+    protected final Vector2 posRender = new Vector2();
+    protected boolean hayPosRender = false;
+
+    // Marcas de frame de ColaRenderEntidades (visible este frame / ya está en la cola)
+    int marcaVisible = -1;
+    int marcaEnCola = -1;
+
     protected SpritesEntidad(Entidad entidad, int frameW, int frameH) {
         this.entidad = entidad;
         this.frameW = frameW;
         this.frameH = frameH;
     }
 
-    protected abstract String pathQuieto();
-    protected abstract String pathMovimiento();
-    protected String pathMuerte() { return null; }
+    /** Nombre de la región en el atlas (= path del PNG sin ".png"), ej: "Enemigos/cyborg_quieto". */
+    protected abstract String regionQuieto();
+    protected abstract String regionMovimiento();
+    protected String regionMuerte() { return null; }
 
     protected float duracionQuieto() { return 0.20f; }
     protected float duracionMovimiento() { return 0.12f; }
     protected float duracionMuerte() { return 0.10f; }
 
+    /** Pide las hojas a la cache por nombre de región (la primera instancia la carga; el resto la comparte). */
     protected void cargar() {
-        texQuieto = new Texture(Gdx.files.internal(pathQuieto()));
-        texMovimiento = new Texture(Gdx.files.internal(pathMovimiento()));
+        hojaQuieto = CacheSprites.obtener(regionQuieto(), frameW, frameH, duracionQuieto(), Animation.PlayMode.LOOP);
+        hojaMovimiento = CacheSprites.obtener(regionMovimiento(), frameW, frameH, duracionMovimiento(), Animation.PlayMode.LOOP);
 
-        String pm = pathMuerte();
+        String pm = regionMuerte();
         if (pm != null && !pm.isBlank()) {
-            texMuerte = new Texture(Gdx.files.internal(pm));
+            hojaMuerte = CacheSprites.obtener(pm, frameW, frameH, duracionMuerte(), Animation.PlayMode.NORMAL);
         }
     }
 
+    /**
+     * Toma las animaciones de las hojas que ya estén listas. Las que se cargan en segundo plano
+     * llegan después: update() vuelve a llamar a esto hasta que estén todas.
+     */
     protected void construirAnimaciones() {
-        framesQuieto = split(texQuieto);
-        framesMovimiento = split(texMovimiento);
+        if (animQuieto == null && hojaQuieto != null && hojaQuieto.lista()) {
+            animQuieto = hojaQuieto.animacion();
+            fallbackQuieto = hojaQuieto.primerFrame();
+        }
+        if (animMovimiento == null && hojaMovimiento != null && hojaMovimiento.lista()) {
+            animMovimiento = hojaMovimiento.animacion();
+            fallbackMovimiento = hojaMovimiento.primerFrame();
+        }
+        if (animMuerte == null && hojaMuerte != null && hojaMuerte.lista()) {
+            animMuerte = hojaMuerte.animacion();
+            fallbackMuerte = hojaMuerte.primerFrame();
+        }
+    }
+
+    private boolean faltanAnimaciones() {
+        return animQuieto == null || animMovimiento == null || (hojaMuerte != null && animMuerte == null);
+    }
 
-        animQuieto = new Animation<>(duracionQuieto(), framesQuieto, Animation.PlayMode.LOOP);
-        animMovimiento = new Animation<>(duracionMovimiento(), framesMovimiento, Animation.PlayMode.LOOP);
+    public Entidad getEntidad() {
+        return entidad;
+    }
 
-        fallbackQuieto = framesQuieto.size > 0 ? framesQuieto.first() : new TextureRegion(texQuieto);
-        fallbackMovimiento = framesMovimiento.size > 0 ? framesMovimiento.first() : new TextureRegion(texMovimiento);
+    public void setPosicionRender(Vector2 pos) {
+        posRender.set(pos);
+        hayPosRender = true;
+    }
 
-        if (texMuerte != null) {
-            framesMuerte = split(texMuerte);
-            animMuerte = new Animation<>(duracionMuerte(), framesMuerte, Animation.PlayMode.NORMAL);
-            fallbackMuerte = framesMuerte.size > 0 ? framesMuerte.first() : new TextureRegion(texMuerte);
-        }
+    /** Donde se dibuja: la interpolada si la hay, si no la del body. */
+    protected Vector2 posicionDibujo() {
+        return hayPosRender ? posRender : entidad.getPosicion();
     }
 
-    protected Array<TextureRegion> split(Texture tex) {
-        Array<TextureRegion> frames = new Array<>();
-        TextureRegion[][] grid = TextureRegion.split(tex, frameW, frameH);
+    /** Y de los pies en el mundo (lo mismo que usa render para apoyar el frame). */
+    public float pieY() {
+        return posicionDibujo().y - anclaPie + offsetY;
+    }
 
-        for (TextureRegion[] row : grid)
-            for (TextureRegion r : row)
-                frames.add(r);
+    /** true si el rectángulo donde se dibuja el frame toca el rectángulo dado. */
+    public boolean tocaRect(float x, float y, float ancho, float alto) {
+        if (entidad == null || entidad.getCuerpoFisico() == null) return false;
 
-        return frames;
+        float sx = posicionDibujo().x - frameW / 2f + offsetX;
+        float sy = pieY();
+        return sx < x + ancho && sx + frameW > x && sy < y + alto && sy + frameH > y;
     }
 
     public void setOffset(float x, float y) {
@@ -102,7 +132,9 @@ public abstract class SpritesEntidad {
 
     public void iniciarMuerte() {
         if (enMuerte) return;
-        if (animMuerte == null || framesMuerte == null || framesMuerte.size == 0) return;
+        if (hojaMuerte == null) return;
+        // Todavía cargando: entra igual en muerte (update la termina al toque, con placeholder)
+        if (hojaMuerte.lista() && hojaMuerte.cantidadFrames() == 0) return;
 
         enMuerte = true;
         muerteFinalizada = false;
@@ -128,10 +160,12 @@ public abstract class SpritesEntidad {
 
     public void update(float delta) {
         stateTime += delta;
+        if (faltanAnimaciones()) construirAnimaciones();
 
         if (enMuerte) {
             muerteTime += delta;
-            float dur = animMuerte.getAnimationDuration();
+            // Sin animación de muerte cargada no hay nada que esperar
+            float dur = (animMuerte != null) ? animMuerte.getAnimationDuration() : 0f;
             if (muerteTime >= dur) {
                 muerteTime = dur; // clamp al último frame
                 muerteFinalizada = true;
@@ -150,12 +184,18 @@ public abstract class SpritesEntidad {
         }
 
         TextureRegion frame = elegirFrame();
+        Vector2 pos = posicionDibujo();
+
+        if (frame == null) {
+            dibujarPlaceholder(batch, pos);
+            return;
+        }
 
         float w = frame.getRegionWidth();
         float h = frame.getRegionHeight();
 
-        float x = entidad.getPosicion().x - w / 2f + offsetX;
-        float y = entidad.getPosicion().y - anclaPie + offsetY;
+        float x = pos.x - w / 2f + offsetX;
+        float y = pos.y - anclaPie + offsetY;
 
         if (ultimaMiradaDerecha) {
             batch.draw(frame, x, y);
@@ -164,10 +204,22 @@ public abstract class SpritesEntidad {
         }
     }
 
+    /** Mientras la hoja se carga: una silueta gris translúcida donde va a estar el personaje. */
+    protected void dibujarPlaceholder(SpriteBatch batch, Vector2 pos) {
+        float w = frameW * 0.5f;
+        float h = frameH * 0.6f;
+
+        float anterior = batch.getPackedColor();
+        batch.setColor(0.5f, 0.5f, 0.5f, 0.5f);
+        batch.draw(CacheSprites.placeholder(), pos.x - w / 2f + offsetX, pos.y - anclaPie + offsetY, w, h);
+        batch.setPackedColor(anterior);
+    }
+
+    /** Frame a dibujar, o null si la hoja que toca todavía no se cargó. */
     protected TextureRegion elegirFrame() {
         // 🔴 prioridad total: muerte
         if (enMuerte) {
-            if (animMuerte != null && framesMuerte.size > 0) {
+            if (animMuerte != null && animMuerte.getKeyFrames().length > 0) {
                 return animMuerte.getKeyFrame(muerteTime, false);
             }
             return fallbackMuerte;
@@ -178,15 +230,17 @@ public abstract class SpritesEntidad {
         boolean moviendo = v2 > 0.01f;
 
         if (moviendo) {
-            return animMovimiento.getKeyFrame(stateTime, true);
+            return (animMovimiento != null) ? animMovimiento.getKeyFrame(stateTime, true) : null;
         }
-        return animQuieto.getKeyFrame(stateTime, true);
+        return (animQuieto != null) ? animQuieto.getKeyFrame(stateTime, true) : null;
     }
 
 
+    /** Suelta las referencias a la cache (la textura se libera cuando la suelta el último). */
     public void dispose() {
-        if (texQuieto != null) texQuieto.dispose();
-        if (texMovimiento != null) texMovimiento.dispose();
-        if (texMuerte != null) texMuerte.dispose();
+        if (hojaQuieto != null) CacheSprites.liberar(hojaQuieto.nombre());
+        if (hojaMovimiento != null) CacheSprites.liberar(hojaMovimiento.nombre());
+        if (hojaMuerte != null) CacheSprites.liberar(hojaMuerte.nombre());
+        hojaQuieto = hojaMovimiento = hojaMuerte = null;
     }
 }
@@ -13,21 +13,21 @@ public class SpritesJugador extends SpritesEntidad {
     }
 
     @Override
-    protected String pathQuieto() {
+    protected String regionQuieto() {
         String base = (jugador.getGenero() == Genero.FEMENINO) ? "jugador_fem" : "jugador_masc";
-        return "Jugadores/" + base + "_quieto.png";
+        return "Jugadores/" + base + "_quieto";
     }
 
     @Override
-    protected String pathMovimiento() {
+    protected String regionMovimiento() {
         String base = (jugador.getGenero() == Genero.FEMENINO) ? "jugador_fem" : "jugador_masc";
-        return "Jugadores/" + base + "_movimiento.png";
+        return "Jugadores/" + base + "_movimiento";
     }
 
     @Override
-    protected String pathMuerte() {
+    protected String regionMuerte() {
         String base = (jugador.getGenero() == Genero.FEMENINO) ? "jugador_fem" : "jugador_masc";
-        return "Jugadores/" + base + "_muerte.png";
+        return "Jugadores/" + base + "_muerte";
     }
 
     @Override
@@ -4,10 +4,16 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
 
 /**
  * Mundo de Box2D + debug renderer.
  * Volvemos a usar PIXELES como unidad de Box2D.
+ *
+ * Paso fijo con acumulador: {@link #pasosPendientes(float)} dice cuántos pasos de 1/60 s
+ * tocan este frame y {@link #pasoFijo()} da uno. Antes de cada paso se guarda la pose de los
+ * cuerpos que se mueven, y {@link #posicionInterpolada} mezcla anterior y actual con
+ * {@link #getAlpha()}: el dibujo queda suave aunque la pantalla vaya a 144 Hz o se saltee un paso.
  */
 public class FisicaMundo {
 
@@ -19,6 +25,19 @@ public class FisicaMundo {
     private static final int POSITION_ITERS = 2;
     private static final float MAX_FRAME_TIME = 0.25f; // anti “spiral of death”
 
+    /** Más que esto entre dos pasos no es movimiento, es un setTransform (puerta, respawn): no se interpola. */
+    private static final float SALTO_MAXIMO = 32f;
+
+    /** Pose de un cuerpo justo antes del último paso. */
+    private static final class PoseAnterior {
+        float x, y;
+        int paso;
+    }
+
+    private final ObjectMap<Body, PoseAnterior> anteriores = new ObjectMap<>();
+    private final Array<Body> cuerpos = new Array<>();
+    private int pasosDados = 0;
+
 
     private final World world;
     private final Box2DDebugRenderer debugRenderer;
@@ -39,14 +58,87 @@ public class FisicaMundo {
         world.setContactListener(listener);
     }
 
+    /** Avanza el acumulador y da todos los pasos que correspondan (sin lógica entre pasos). */
     public void step(float delta) {
+        int pasos = pasosPendientes(delta);
+        for (int i = 0; i < pasos; i++) pasoFijo();
+    }
+
+    /**
+     * Suma el delta al acumulador y devuelve cuántos pasos fijos hay que dar este frame
+     * (ya descontados). Quien llama da cada uno con {@link #pasoFijo()}.
+     */
+    public int pasosPendientes(float delta) {
         // cap para evitar que si el juego se cuelga (alt-tab, breakpoint) explote la física
         float frameTime = Math.min(delta, MAX_FRAME_TIME);
         accumulator += frameTime;
 
+        int pasos = 0;
         while (accumulator >= FIXED_TIMESTEP) {
-            world.step(FIXED_TIMESTEP, VELOCITY_ITERS, POSITION_ITERS);
             accumulator -= FIXED_TIMESTEP;
+            pasos++;
+        }
+        return pasos;
+    }
+
+    /** Un paso de 1/60 s, guardando antes la pose de cada cuerpo para interpolar. */
+    public void pasoFijo() {
+        guardarPosesAnteriores();
+        world.step(FIXED_TIMESTEP, VELOCITY_ITERS, POSITION_ITERS);
+    }
+
+    public float getPasoFijo() {
+        return FIXED_TIMESTEP;
+    }
+
+    /** Fracción de paso que quedó en el acumulador (0..1): cuánto mezclar de la pose actual. */
+    public float getAlpha() {
+        return accumulator / FIXED_TIMESTEP;
+    }
+
+    /**
+     * Posición para dibujar: entre la pose anterior y la actual según {@link #getAlpha()}.
+     * Cuerpos estáticos, recién creados o teletransportados devuelven la posición actual.
+     */
+    public Vector2 posicionInterpolada(Body b, Vector2 out) {
+        Vector2 actual = b.getPosition();
+        PoseAnterior p = anteriores.get(b);
+        if (p == null || p.paso != pasosDados) return out.set(actual);
+
+        float dx = actual.x - p.x;
+        float dy = actual.y - p.y;
+        if (dx * dx + dy * dy > SALTO_MAXIMO * SALTO_MAXIMO) return out.set(actual);
+
+        float a = getAlpha();
+        return out.set(p.x + dx * a, p.y + dy * a);
+    }
+
+    private void guardarPosesAnteriores() {
+        pasosDados++;
+        world.getBodies(cuerpos);
+
+        int moviles = 0;
+        for (Body b : cuerpos) {
+            if (b.getType() == BodyDef.BodyType.StaticBody) continue;
+            moviles++;
+
+            PoseAnterior p = anteriores.get(b);
+            if (p == null) {
+                p = new PoseAnterior();
+                anteriores.put(b, p);
+            }
+            Vector2 pos = b.getPosition();
+            p.x = pos.x;
+            p.y = pos.y;
+            p.paso = pasosDados;
+        }
+
+        // Cuerpos destruidos: quedaron con un paso viejo
+        if (anteriores.size > moviles) {
+            ObjectMap.Entries<Body, PoseAnterior> it = anteriores.entries();
+            while (it.hasNext()) {
+                if (it.next().value.paso != pasosDados) it.remove();
+            }
         }
     }
 
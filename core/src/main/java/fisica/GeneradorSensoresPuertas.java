@@ -2,14 +2,14 @@ package fisica;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.physics.box2d.*;
+import mapa.ConjuntoSalas;
 import mapa.Direccion;
 import mapa.EspecificacionPuerta;
 import mapa.DisposicionMapa;
 import mapa.Habitacion;
 
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 
 public class GeneradorSensoresPuertas {
@@ -23,9 +23,11 @@ public class GeneradorSensoresPuertas {
 
     private final World world;
     private final List<Habitacion> camino;
-    private final Set<Habitacion> caminoSet;
     private final DisposicionMapa disposicion;
 
+    /** Cuerpos creados (sensores y muros), para poder destruirlos al cambiar de piso. */
+    private final List<Body> cuerpos = new ArrayList<>();
+
     private static final float GROSOR_MURO = 16f;
 
     private static final float ANCHO_PUERTA = 96f;
@@ -38,22 +40,51 @@ public class GeneradorSensoresPuertas {
         this.world = fisica.world();
         this.disposicion = disposicion;
         this.camino = disposicion.getCamino();
-        this.caminoSet = new HashSet<>(camino);
+    }
+
+    /**
+     * Resuelve todas las puertas del camino (destino o bloqueo) SIN crear cuerpos.
+     * No toca Box2D, así que se puede llamar fuera del hilo de render.
+     */
+    public static List<PlanPuerta> planificar(DisposicionMapa disposicion) {
+        List<PlanPuerta> plan = new ArrayList<>();
+        ConjuntoSalas caminoSet = disposicion.getConjuntoActivas();
+
+        for (Habitacion origen : disposicion.getCamino()) {
+            for (var entry : origen.puertas.entrySet()) {
+                Direccion dir = entry.getKey();
+                Habitacion destino = disposicion.getDestinoEnPiso(origen, dir);
+                if (!caminoSet.contiene(destino)) destino = null;
+
+                plan.add(new PlanPuerta(origen, dir, entry.getValue(), destino));
+            }
+        }
+        return plan;
     }
 
     public void generar(ListenerPuerta listener) {
+        generar(planificar(disposicion), listener);
+    }
+
+    /** Crea sensores y muros a partir de un plan ya calculado. */
+    public void generar(List<PlanPuerta> plan, ListenerPuerta listener) {
         Gdx.app.log("GEN_PUERTAS", "Camino tiene " + camino.size() + " salas");
 
-        for (Habitacion h : camino) {
-            crearSensoresPuertas(h, listener);
+        for (PlanPuerta p : plan) {
+            crearSensorPuerta(p, listener);
         }
     }
 
+    public List<Body> getCuerpos() {
+        return cuerpos;
+    }
+
     private void crearMuro(float cx, float cy, float halfW, float halfH) {
         BodyDef bd = new BodyDef();
         bd.type = BodyDef.BodyType.StaticBody;
         bd.position.set(cx, cy);
         Body body = world.createBody(bd);
+        cuerpos.add(body);
 
         PolygonShape shape = new PolygonShape();
         shape.setAsBox(halfW, halfH);
@@ -68,65 +99,63 @@ public class GeneradorSensoresPuertas {
         shape.dispose();
     }
 
-    private void crearSensoresPuertas(Habitacion origen, ListenerPuerta listener) {
+    private void crearSensorPuerta(PlanPuerta plan, ListenerPuerta listener) {
+        Habitacion origen = plan.origen();
+        Direccion dir = plan.direccion();
+        EspecificacionPuerta spec = plan.spec();
+        Habitacion destino = plan.destino();
+
+        if (plan.bloqueada()) {
+            Gdx.app.log("GEN_PUERTAS",
+                "Puerta BLOQUEADA desde " + origen.nombreVisible +
+                    " por " + dir + " (sin destino en piso)");
+            crearBloqueoDePuerta(origen, dir, spec);
+            return;
+        }
 
         float baseX = origen.gridX * origen.ancho;
         float baseY = origen.gridY * origen.alto;
 
-        for (var entry : origen.puertas.entrySet()) {
-            Direccion dir = entry.getKey();
-            EspecificacionPuerta spec = entry.getValue();
-
-            Habitacion destino = disposicion.getDestinoEnPiso(origen, dir);
-
-            if (destino == null || !caminoSet.contains(destino)) {
-                Gdx.app.log("GEN_PUERTAS",
-                    "Puerta BLOQUEADA desde " + origen.nombreVisible +
-                        " por " + dir + " (sin destino en piso)");
-                crearBloqueoDePuerta(origen, dir, spec);
-                continue;
-            }
-
-            // Centro de la puerta en mundo (píxeles)
-            float px = baseX + spec.localX;
-            float py = baseY + spec.localY;
+        // Centro de la puerta en mundo (píxeles)
+        float px = baseX + spec.localX;
+        float py = baseY + spec.localY;
 
-            // 🔥 Corrimiento hacia adentro para que no se active desde la sala vecina
-            switch (dir) {
-                case NORTE -> py -= OFFSET_SENSOR;
-                case SUR   -> py += OFFSET_SENSOR;
-                case ESTE  -> px -= OFFSET_SENSOR;
-                case OESTE -> px += OFFSET_SENSOR;
-            }
+        // 🔥 Corrimiento hacia adentro para que no se active desde la sala vecina
+        switch (dir) {
+            case NORTE -> py -= OFFSET_SENSOR;
+            case SUR   -> py += OFFSET_SENSOR;
+            case ESTE  -> px -= OFFSET_SENSOR;
+            case OESTE -> px += OFFSET_SENSOR;
+        }
 
-            float halfW, halfH;
-            switch (dir) {
-                case NORTE, SUR -> { halfW = ANCHO_PUERTA / 2f; halfH = GROSOR_MURO; }
-                case ESTE, OESTE -> { halfW = GROSOR_MURO; halfH = ALTO_PUERTA / 2f; }
-                default -> { halfW = ANCHO_PUERTA / 2f; halfH = ALTO_PUERTA / 2f; }
-            }
+        float halfW, halfH;
+        switch (dir) {
+            case NORTE, SUR -> { halfW = ANCHO_PUERTA / 2f; halfH = GROSOR_MURO; }
+            case ESTE, OESTE -> { halfW = GROSOR_MURO; halfH = ALTO_PUERTA / 2f; }
+            default -> { halfW = ANCHO_PUERTA / 2f; halfH = ALTO_PUERTA / 2f; }
+        }
 
-            BodyDef bd = new BodyDef();
-            bd.type = BodyDef.BodyType.StaticBody;
-            bd.position.set(px, py);
-            Body body = world.createBody(bd);
+        BodyDef bd = new BodyDef();
+        bd.type = BodyDef.BodyType.StaticBody;
+        bd.position.set(px, py);
+        Body body = world.createBody(bd);
+        cuerpos.add(body);
 
-            PolygonShape shape = new PolygonShape();
-            shape.setAsBox(halfW, halfH);
+        PolygonShape shape = new PolygonShape();
+        shape.setAsBox(halfW, halfH);
 
-            FixtureDef fd = new FixtureDef();
-            fd.shape = shape;
-            fd.isSensor = true;
+        FixtureDef fd = new FixtureDef();
+        fd.shape = shape;
+        fd.isSensor = true;
 
-            Fixture fixture = body.createFixture(fd);
-            shape.dispose();
+        Fixture fixture = body.createFixture(fd);
+        shape.dispose();
 
-            if (listener != null) listener.onPuertaCreada(fixture, origen, destino, dir);
+        if (listener != null) listener.onPuertaCreada(fixture, origen, destino, dir);
 
-            Gdx.app.log("GEN_PUERTAS",
-                "Puerta creada: " + origen.nombreVisible +
-                    " --" + dir + "--> " + destino.nombreVisible);
-        }
+        Gdx.app.log("GEN_PUERTAS",
+            "Puerta creada: " + origen.nombreVisible +
+                " --" + dir + "--> " + destino.nombreVisible);
     }
 
     private void crearBloqueoDePuerta(Habitacion origen, Direccion dir, EspecificacionPuerta spec) {
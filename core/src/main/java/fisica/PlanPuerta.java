@@ -0,0 +1,21 @@
+package fisica;
+
+import mapa.Direccion;
+import mapa.EspecificacionPuerta;
+import mapa.Habitacion;
+
+/**
+ * Puerta ya resuelta contra el piso, sin tocar Box2D (se puede armar en otro hilo).
+ *
+ * destino == null -> la puerta queda bloqueada con un muro.
+ */
+public record PlanPuerta(
+    Habitacion origen,
+    Direccion direccion,
+    EspecificacionPuerta spec,
+    Habitacion destino
+) {
+    public boolean bloqueada() {
+        return destino == null;
+    }
+}
@@ -0,0 +1,252 @@
+package graficos;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache compartida de hojas de sprites y sus animaciones, por nombre de región
+ * (ej: "Enemigos/cyborg_quieto").
+ *
+ * - Si se cargó el atlas ({@link #cargarAtlas}), la hoja es una región del atlas: todos los
+ *   personajes salen de la misma textura y el batch no corta entre uno y otro.
+ * - Si el atlas no está (no se corrió :lwjgl3:empaquetarSprites) o no tiene esa región,
+ *   se carga el PNG suelto "nombre.png". Con {@link #usarCargador} el PNG se decodifica en otro
+ *   hilo y la hoja queda "no lista" hasta que se sube a GL: el sprite muestra un placeholder.
+ * - Cada hoja se carga UNA vez aunque haya diez enemigos iguales en la sala.
+ * - Las Animation también se comparten: no tienen estado (el stateTime lo lleva cada sprite),
+ *   así que todas las instancias pueden usar la misma.
+ * - Conteo de referencias por nombre: {@link #obtener} suma, {@link #liberar} resta, y con la
+ *   última referencia se libera la textura suelta (el atlas vive hasta {@link #liberarTodo()}).
+ *
+ * Solo desde el hilo de render (crea/libera texturas GL).
+ */
+public final class CacheSprites {
+
+    /**
+     * Animación de una hoja, compartida: no cambiarle el PlayMode.
+     * Si la textura se está cargando en segundo plano, {@link #lista()} es false y
+     * textura/animación/primerFrame son null hasta que llegue (siempre en el hilo de render).
+     */
+    public static final class Hoja {
+        private final String nombre;
+        private Texture textura;
+        private Animation<TextureRegion> animacion;
+        private TextureRegion primerFrame;
+
+        private Hoja(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public String nombre() {
+            return nombre;
+        }
+
+        public boolean lista() {
+            return animacion != null;
+        }
+
+        public Texture textura() {
+            return textura;
+        }
+
+        public Animation<TextureRegion> animacion() {
+            return animacion;
+        }
+
+        public TextureRegion primerFrame() {
+            return primerFrame;
+        }
+
+        public int cantidadFrames() {
+            return lista() ? animacion.getKeyFrames().length : 0;
+        }
+    }
+
+    private record ClaveAnim(int frameW, int frameH, float duracion, Animation.PlayMode modo) {}
+
+    private static final class Entrada {
+        /** null mientras el PNG suelto se está cargando. */
+        TextureRegion region;
+        /** Textura propia (PNG suelto) o null si la región es del atlas. */
+        Texture suelta;
+        final Map<ClaveAnim, Hoja> hojas = new HashMap<>();
+        int referencias;
+
+        Entrada(TextureRegion region, Texture suelta) {
+            this.region = region;
+            this.suelta = suelta;
+        }
+
+        void liberar() {
+            if (suelta != null) suelta.dispose();
+        }
+    }
+
+    private static final Map<String, Entrada> entradas = new HashMap<>();
+
+    private static TextureAtlas atlas;
+
+    /** Si hay, los PNG sueltos se decodifican fuera del hilo de render. */
+    private static CargadorTexturas cargador;
+
+    /** 1x1 blanca para placeholders cuando no hay atlas (con atlas se usa su "blanco"). */
+    private static Texture blancaPropia;
+    private static TextureRegion placeholder;
+
+    private CacheSprites() {}
+
+    /**
+     * Carga el atlas de personajes si existe. Llamar antes de crear sprites.
+     * @return true si quedó cargado
+     */
+    public static boolean cargarAtlas(String path) {
+        if (atlas != null) return true;
+        if (!Gdx.files.internal(path).exists()) {
+            Gdx.app.log("CacheSprites", "Sin atlas (" + path + "): se usan los PNG sueltos");
+            return false;
+        }
+        atlas = new TextureAtlas(Gdx.files.internal(path));
+        return true;
+    }
+
+    /** Con cargador, las hojas sueltas se piden async (null = carga sincrónica, como antes). */
+    public static void usarCargador(CargadorTexturas c) {
+        cargador = c;
+    }
+
+    /** Región del atlas por nombre, o null (sin atlas o no está). */
+    public static TextureRegion region(String nombre) {
+        return (atlas == null) ? null : atlas.findRegion(nombre);
+    }
+
+    /** Región blanca para dibujar un placeholder teñido mientras una hoja se carga. */
+    public static TextureRegion placeholder() {
+        if (placeholder != null) return placeholder;
+
+        TextureRegion r = region("blanco");
+        if (r == null) {
+            Pixmap pm = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+            pm.setColor(Color.WHITE);
+            pm.fill();
+            blancaPropia = new Texture(pm);
+            pm.dispose();
+            r = new TextureRegion(blancaPropia);
+        }
+        placeholder = r;
+        return placeholder;
+    }
+
+    /**
+     * Hoja de la región 'nombre' cortada en frames de frameW x frameH. Suma una referencia:
+     * cada obtener() tiene que tener su {@link #liberar(String)}.
+     */
+    public static Hoja obtener(String nombre, int frameW, int frameH, float duracion, Animation.PlayMode modo) {
+        Entrada e = entradas.get(nombre);
+        if (e == null) {
+            TextureRegion r = region(nombre);
+            if (r != null) {
+                e = new Entrada(r, null);
+            } else if (cargador != null) {
+                e = new Entrada(null, null);
+                pedirAsync(nombre, e);
+            } else {
+                Texture t = new Texture(Gdx.files.internal(nombre + ".png"));
+                e = new Entrada(new TextureRegion(t), t);
+            }
+            entradas.put(nombre, e);
+        }
+        e.referencias++;
+
+        ClaveAnim clave = new ClaveAnim(frameW, frameH, duracion, modo);
+        Hoja h = e.hojas.get(clave);
+        if (h == null) {
+            h = new Hoja(nombre);
+            if (e.region != null) armar(h, e.region, clave);
+            e.hojas.put(clave, h);
+        }
+        return h;
+    }
+
+    private static void pedirAsync(String nombre, Entrada e) {
+        cargador.cargar(Gdx.files.internal(nombre + ".png"), tex -> {
+            // Si en el medio se soltó (o se hizo liberarTodo), nadie la quiere
+            if (entradas.get(nombre) != e) {
+                if (tex != null) tex.dispose();
+                return;
+            }
+            if (tex == null) return; // no se pudo leer: queda en placeholder (ya se logueó)
+
+            e.suelta = tex;
+            e.region = new TextureRegion(tex);
+            for (Map.Entry<ClaveAnim, Hoja> h : e.hojas.entrySet()) armar(h.getValue(), e.region, h.getKey());
+        });
+    }
+
+    /** Resta una referencia al nombre; si era la última, libera la hoja. */
+    public static void liberar(String nombre) {
+        if (nombre == null) return;
+
+        Entrada e = entradas.get(nombre);
+        if (e == null) return;
+
+        if (--e.referencias <= 0) {
+            e.liberar();
+            entradas.remove(nombre);
+        }
+    }
+
+    /** Cuántas texturas distintas usan las hojas cargadas ahora (1 con atlas; para logs/debug). */
+    public static int texturasCargadas() {
+        Set<Texture> distintas = new HashSet<>();
+        for (Entrada e : entradas.values()) {
+            if (e.region != null) distintas.add(e.region.getTexture());
+        }
+        return distintas.size();
+    }
+
+    /**
+     * Libera todo lo que quede (fin de la partida). Si algo seguía referenciado es que
+     * alguien no llamó a liberar(): se avisa por log.
+     */
+    public static void liberarTodo() {
+        for (Map.Entry<String, Entrada> e : entradas.entrySet()) {
+            if (Gdx.app != null) {
+                Gdx.app.log("CacheSprites", "Quedó referenciada: " + e.getKey() + " (" + e.getValue().referencias + ")");
+            }
+            e.getValue().liberar();
+        }
+        entradas.clear();
+
+        if (atlas != null) {
+            atlas.dispose();
+            atlas = null;
+        }
+        if (blancaPropia != null) {
+            blancaPropia.dispose();
+            blancaPropia = null;
+        }
+        placeholder = null;
+    }
+
+    private static void armar(Hoja h, TextureRegion hoja, ClaveAnim c) {
+        Array<TextureRegion> frames = new Array<>(TextureRegion.class);
+        for (TextureRegion[] fila : hoja.split(c.frameW(), c.frameH()))
+            for (TextureRegion r : fila)
+                frames.add(r);
+
+        h.textura = hoja.getTexture();
+        h.primerFrame = frames.size > 0 ? frames.first() : new TextureRegion(hoja);
+        h.animacion = new Animation<>(c.duracion(), frames, c.modo());
+    }
+}
@@ -0,0 +1,270 @@
+package graficos;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Disposable;
+import mapa.Habitacion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Capas de tiles estáticas del mapa horneadas una vez por sala en un SpriteCache.
+ *
+ * - Al construir se recorre cada capa de tiles visible (Fondo, Obstaculos) y, por cada
+ *   Habitacion, se arma un cache con sus celdas: [sala][capa] -> id de cache.
+ * - Un SpriteCache con índices admite hasta 8191 tiles: las salas se reparten en tantos
+ *   SpriteCache como haga falta (cada sala entera en uno).
+ * - Por frame solo se dibujan los caches de las salas que entran en la cámara (en la práctica
+ *   salaActual): un draw por capa, sin recorrer ni re-emitir tiles.
+ * - Los vértices (flips y rotaciones de Tiled incluidos) se arman igual que
+ *   OrthogonalTiledMapRenderer.
+ *
+ * No soporta tiles animados (el mapa no tiene): quedarían congelados en su primer frame.
+ */
+public class CacheTilesSalas implements Disposable {
+
+    private static final Habitacion[] SALAS = Habitacion.values();
+
+    // Índices de un quad en el formato de Batch (x, y, color, u, v) x 4
+    private static final int X1 = 0, Y1 = 1, C1 = 2, U1 = 3, V1 = 4;
+    private static final int X2 = 5, Y2 = 6, C2 = 7, U2 = 8, V2 = 9;
+    private static final int X3 = 10, Y3 = 11, C3 = 12, U3 = 13, V3 = 14;
+    private static final int X4 = 15, Y4 = 16, C4 = 17, U4 = 18, V4 = 19;
+
+    /** Tope de SpriteCache con índices (short): 8191 quads por cache. */
+    private static final int MAX_TILES_POR_CACHE = 8191;
+
+    /** Uno o más caches; cada sala vive entera en uno (sus capas se dibujan seguidas). */
+    private final List<SpriteCache> caches = new ArrayList<>();
+    private final List<TiledMapTileLayer> capas = new ArrayList<>();
+
+    /** cacheDeSala[sala.ordinal()] = índice en caches (-1 = la sala no tiene tiles). */
+    private final int[] cacheDeSala = new int[SALAS.length];
+
+    /** ids[sala.ordinal()][capa] (-1 = la sala no tiene tiles en esa capa). */
+    private final int[][] ids;
+
+    private final float[] vertices = new float[20];
+
+    public CacheTilesSalas(TiledMap mapa) {
+        for (MapLayer capa : mapa.getLayers()) {
+            if (capa.isVisible() && capa instanceof TiledMapTileLayer tiles) capas.add(tiles);
+        }
+
+        // Un SpriteCache reserva todo al crearse: primero se cuentan los tiles de cada sala
+        // (solo los que caen dentro de alguna Habitacion: el resto nunca se hornea)
+        int[] tilesPorSala = new int[SALAS.length];
+        for (Habitacion sala : SALAS) {
+            for (TiledMapTileLayer capa : capas) tilesPorSala[sala.ordinal()] += contarTiles(sala, capa);
+            if (tilesPorSala[sala.ordinal()] > MAX_TILES_POR_CACHE) {
+                throw new IllegalStateException("La sala " + sala.name() + " tiene " + tilesPorSala[sala.ordinal()] +
+                    " tiles; un SpriteCache admite hasta " + MAX_TILES_POR_CACHE);
+            }
+        }
+
+        // Salas en orden, llenando cada cache hasta el tope antes de abrir otro
+        List<Integer> tamanios = new ArrayList<>();
+        int enCurso = 0;
+        for (Habitacion sala : SALAS) {
+            int n = tilesPorSala[sala.ordinal()];
+            if (n == 0) {
+                cacheDeSala[sala.ordinal()] = -1;
+                continue;
+            }
+            if (tamanios.isEmpty() || enCurso + n > MAX_TILES_POR_CACHE) {
+                if (!tamanios.isEmpty()) tamanios.set(tamanios.size() - 1, enCurso);
+                tamanios.add(0);
+                enCurso = 0;
+            }
+            enCurso += n;
+            cacheDeSala[sala.ordinal()] = tamanios.size() - 1;
+        }
+        if (!tamanios.isEmpty()) tamanios.set(tamanios.size() - 1, enCurso);
+
+        // Con índices: add() recibe quads de 4 vértices (sin índices espera 6 por imagen)
+        for (int n : tamanios) caches.add(new SpriteCache(n, true));
+
+        ids = new int[SALAS.length][capas.size()];
+        for (Habitacion sala : SALAS) {
+            int c = cacheDeSala[sala.ordinal()];
+            for (int i = 0; i < capas.size(); i++) {
+                ids[sala.ordinal()][i] = (c < 0) ? -1 : hornear(caches.get(c), sala, capas.get(i));
+            }
+        }
+    }
+
+    /** Cuántos caches hicieron falta (para logs/debug). */
+    public int cantidadCaches() {
+        return caches.size();
+    }
+
+    /**
+     * Dibuja las capas de las salas visibles por la cámara. Va FUERA del batch del mundo
+     * (SpriteCache tiene su propio begin/end).
+     */
+    public void render(OrthographicCamera cam) {
+        float medioW = cam.viewportWidth * cam.zoom / 2f;
+        float medioH = cam.viewportHeight * cam.zoom / 2f;
+        float izq = cam.position.x - medioW, der = cam.position.x + medioW;
+        float abajo = cam.position.y - medioH, arriba = cam.position.y + medioH;
+
+        SpriteCache abierto = null;
+        for (Habitacion sala : SALAS) {
+            int c = cacheDeSala[sala.ordinal()];
+            if (c < 0) continue;
+
+            float x0 = sala.gridX * sala.ancho;
+            float y0 = sala.gridY * sala.alto;
+            if (x0 >= der || x0 + sala.ancho <= izq || y0 >= arriba || y0 + sala.alto <= abajo) continue;
+
+            SpriteCache cache = caches.get(c);
+            if (cache != abierto) {
+                if (abierto != null) {
+                    abierto.end();
+                } else {
+                    // SpriteCache no maneja blending: Obstaculos tiene transparencia sobre Fondo
+                    Gdx.gl.glEnable(GL20.GL_BLEND);
+                    Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+                }
+                cache.setProjectionMatrix(cam.combined);
+                cache.begin();
+                abierto = cache;
+            }
+            for (int id : ids[sala.ordinal()]) {
+                if (id >= 0) cache.draw(id);
+            }
+        }
+        if (abierto != null) abierto.end();
+    }
+
+    // =========================
+    // Horneado
+    // =========================
+
+    /** Rango de celdas [col0, fila0, col1, fila1) de la sala en la capa. */
+    private static int[] limites(Habitacion sala, TiledMapTileLayer capa) {
+        float tw = capa.getTileWidth();
+        float th = capa.getTileHeight();
+
+        int col0 = (int) (sala.gridX * sala.ancho / tw);
+        int fila0 = (int) (sala.gridY * sala.alto / th);
+        int col1 = Math.min(capa.getWidth(), col0 + (int) Math.ceil(sala.ancho / tw));
+        int fila1 = Math.min(capa.getHeight(), fila0 + (int) Math.ceil(sala.alto / th));
+        return new int[] {col0, fila0, col1, fila1};
+    }
+
+    private static int contarTiles(Habitacion sala, TiledMapTileLayer capa) {
+        int[] l = limites(sala, capa);
+        int n = 0;
+        for (int fila = l[1]; fila < l[3]; fila++)
+            for (int col = l[0]; col < l[2]; col++)
+                if (celdaConTile(capa.getCell(col, fila))) n++;
+        return n;
+    }
+
+    private int hornear(SpriteCache cache, Habitacion sala, TiledMapTileLayer capa) {
+        if (contarTiles(sala, capa) == 0) return -1;
+
+        float tw = capa.getTileWidth();
+        float th = capa.getTileHeight();
+        int[] l = limites(sala, capa);
+
+        float color = Color.toFloatBits(1f, 1f, 1f, capa.getOpacity());
+        float offX = capa.getRenderOffsetX();
+        float offY = -capa.getRenderOffsetY();
+
+        cache.beginCache();
+        for (int fila = l[1]; fila < l[3]; fila++) {
+            for (int col = l[0]; col < l[2]; col++) {
+                TiledMapTileLayer.Cell celda = capa.getCell(col, fila);
+                if (!celdaConTile(celda)) continue;
+
+                armarQuad(celda, col * tw + offX, fila * th + offY, color);
+                cache.add(celda.getTile().getTextureRegion().getTexture(), vertices, 0, vertices.length);
+            }
+        }
+        return cache.endCache();
+    }
+
+    private static boolean celdaConTile(TiledMapTileLayer.Cell celda) {
+        return celda != null && celda.getTile() != null;
+    }
+
+    /** Mismo quad que OrthogonalTiledMapRenderer.renderTileLayer (escala 1). */
+    private void armarQuad(TiledMapTileLayer.Cell celda, float x, float y, float color) {
+        TiledMapTile tile = celda.getTile();
+        TextureRegion region = tile.getTextureRegion();
+
+        float x1 = x + tile.getOffsetX();
+        float y1 = y + tile.getOffsetY();
+        float x2 = x1 + region.getRegionWidth();
+        float y2 = y1 + region.getRegionHeight();
+
+        float u1 = region.getU();
+        float v1 = region.getV2();
+        float u2 = region.getU2();
+        float v2 = region.getV();
+
+        float[] v = vertices;
+        v[X1] = x1; v[Y1] = y1; v[C1] = color; v[U1] = u1; v[V1] = v1;
+        v[X2] = x1; v[Y2] = y2; v[C2] = color; v[U2] = u1; v[V2] = v2;
+        v[X3] = x2; v[Y3] = y2; v[C3] = color; v[U3] = u2; v[V3] = v2;
+        v[X4] = x2; v[Y4] = y1; v[C4] = color; v[U4] = u2; v[V4] = v1;
+
+        if (celda.getFlipHorizontally()) {
+            intercambiar(v, U1, U3);
+            intercambiar(v, U2, U4);
+        }
+        if (celda.getFlipVertically()) {
+            intercambiar(v, V1, V3);
+            intercambiar(v, V2, V4);
+        }
+
+        switch (celda.getRotation()) {
+            case TiledMapTileLayer.Cell.ROTATE_90 -> {
+                rotar(v, V1, V2, V3, V4);
+                rotar(v, U1, U2, U3, U4);
+            }
+            case TiledMapTileLayer.Cell.ROTATE_180 -> {
+                intercambiar(v, U1, U3);
+                intercambiar(v, U2, U4);
+                intercambiar(v, V1, V3);
+                intercambiar(v, V2, V4);
+            }
+            case TiledMapTileLayer.Cell.ROTATE_270 -> {
+                rotar(v, V1, V4, V3, V2);
+                rotar(v, U1, U4, U3, U2);
+            }
+            default -> { }
+        }
+    }
+
+    private static void intercambiar(float[] v, int a, int b) {
+        float t = v[a];
+        v[a] = v[b];
+        v[b] = t;
+    }
+
+    /** v[a] <- v[b] <- v[c] <- v[d] <- v[a] */
+    private static void rotar(float[] v, int a, int b, int c, int d) {
+        float t = v[a];
+        v[a] = v[b];
+        v[b] = v[c];
+        v[c] = v[d];
+        v[d] = t;
+    }
+
+    @Override
+    public void dispose() {
+        for (SpriteCache c : caches) c.dispose();
+    }
+}
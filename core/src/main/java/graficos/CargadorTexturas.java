@@ -0,0 +1,107 @@
+package graficos;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Carga de texturas en dos mitades:
+ * - decodificar el PNG a Pixmap (lo caro: leer + descomprimir) en hilos de fondo;
+ * - subir el Pixmap a GL (new Texture) en el hilo de render, en {@link #procesarSubidas()},
+ *   con un tope por frame para que un spawn grande no se coma un frame entero.
+ *
+ * El destino recibe la Texture ya creada en el hilo de render (puede tocar GL y estado del juego).
+ */
+public class CargadorTexturas implements Disposable {
+
+    /** Cuántas texturas se suben por frame como máximo. */
+    private static final int SUBIDAS_POR_FRAME = 2;
+
+    private record Decodificada(Pixmap pixmap, Consumer<Texture> destino) {}
+
+    private final ExecutorService hilos;
+    private final ConcurrentLinkedQueue<Decodificada> listas = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    private volatile boolean cerrado = false;
+
+    public CargadorTexturas() {
+        // Java 17: sin virtual threads; dos hilos daemon de baja prioridad (decodificar no es urgente)
+        AtomicInteger n = new AtomicInteger();
+        this.hilos = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "cargador-texturas-" + n.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /** Decodifica el archivo en otro hilo; 'destino' se llama en el hilo de render con la textura. */
+    public void cargar(FileHandle archivo, Consumer<Texture> destino) {
+        enCurso.incrementAndGet();
+        hilos.execute(() -> {
+            Pixmap pm = null;
+            try {
+                pm = new Pixmap(archivo);
+            } catch (RuntimeException e) {
+                Gdx.app.error("CargadorTexturas", "No se pudo decodificar " + archivo.path(), e);
+            }
+            if (pm != null && cerrado) {
+                pm.dispose();
+                pm = null;
+            }
+            // Aunque falle se encola (pixmap null): así enCurso cuadra y el destino no queda esperando para siempre
+            listas.add(new Decodificada(pm, destino));
+
+            // dispose() pudo vaciar la cola entre el chequeo de arriba y el add: lo que quedó se libera acá
+            if (cerrado) descartarPendientes();
+        });
+    }
+
+    /**
+     * Hilo de render, una vez por frame: sube a GL lo que ya está decodificado (hasta el tope)
+     * y avisa a cada destino. Un fallo llega al destino como null.
+     */
+    public void procesarSubidas() {
+        for (int i = 0; i < SUBIDAS_POR_FRAME; i++) {
+            Decodificada d = listas.poll();
+            if (d == null) return;
+            enCurso.decrementAndGet();
+
+            Texture tex = null;
+            if (d.pixmap() != null) {
+                tex = new Texture(d.pixmap());
+                d.pixmap().dispose();
+            }
+            d.destino().accept(tex);
+        }
+    }
+
+    /** Pedidas que todavía no llegaron a su destino. */
+    public int pendientes() {
+        return enCurso.get();
+    }
+
+    @Override
+    public void dispose() {
+        cerrado = true;
+        hilos.shutdownNow();
+        descartarPendientes();
+    }
+
+    /** Libera los Pixmap que nadie va a subir. Cada uno sale de la cola una sola vez (poll). */
+    private void descartarPendientes() {
+        Decodificada d;
+        while ((d = listas.poll()) != null) {
+            if (d.pixmap() != null) d.pixmap().dispose();
+        }
+    }
+}
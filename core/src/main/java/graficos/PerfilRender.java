@@ -0,0 +1,153 @@
+package graficos;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+
+import java.util.Arrays;
+
+/**
+ * Mide cada fase de Partida.render: tiempo de CPU y lo que llegó a GL (draw calls,
+ * cambios de textura, cambios de shader, llamadas GL) usando GLProfiler.
+ *
+ * Uso por frame: iniciarFrame() -> empezar(fase) / terminar() por cada fase -> terminarFrame().
+ * Apagado no hace nada (ni siquiera toma tiempos), y GLProfiler queda deshabilitado.
+ *
+ * Ojo: los SpriteBatch mandan a GL recién al hacer flush. Para que cada fase se lleve sus
+ * propios draw calls, quien mide tiene que hacer batch.flush() al cerrar una fase que
+ * comparte batch con la siguiente (solo con el perfil activo).
+ */
+public class PerfilRender {
+
+    public enum Fase {
+        SIMULACION("Simulación"),
+        TILES("Tiles"),
+        PUERTAS("Puertas"),
+        SPRITES("Sprites"),
+        ESCALADO("Escalado"),
+        DEBUG_FISICA("Debug Box2D"),
+        HUD("HUD");
+
+        public final String nombre;
+
+        Fase(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+
+    private static final Fase[] FASES = Fase.values();
+
+    /** Suavizado exponencial de los ms, para que se puedan leer (los contadores GL van crudos). */
+    private static final float SUAVIZADO = 0.1f;
+
+    private final GLProfiler gl;
+    private boolean activo = false;
+
+    // Del frame en curso
+    private final long[] nanos = new long[FASES.length];
+    private final int[] drawCalls = new int[FASES.length];
+    private final int[] texturas = new int[FASES.length];
+    private final int[] shaders = new int[FASES.length];
+    private final int[] llamadas = new int[FASES.length];
+
+    // Último frame cerrado
+    private final float[] msSuavizado = new float[FASES.length];
+    private final int[] drawCallsFrame = new int[FASES.length];
+    private final int[] texturasFrame = new int[FASES.length];
+    private final int[] shadersFrame = new int[FASES.length];
+    private final int[] llamadasFrame = new int[FASES.length];
+
+    private Fase actual;
+    private long t0;
+    private int draw0, tex0, shader0, llamadas0;
+
+    public PerfilRender() {
+        gl = new GLProfiler(Gdx.graphics);
+    }
+
+    public boolean isActivo() {
+        return activo;
+    }
+
+    public void alternar() {
+        activo = !activo;
+        if (activo) {
+            gl.enable();
+            Arrays.fill(msSuavizado, 0f);
+        } else {
+            gl.disable();
+        }
+    }
+
+    public void iniciarFrame() {
+        if (!activo) return;
+        Arrays.fill(nanos, 0L);
+        Arrays.fill(drawCalls, 0);
+        Arrays.fill(texturas, 0);
+        Arrays.fill(shaders, 0);
+        Arrays.fill(llamadas, 0);
+        gl.reset();
+    }
+
+    public void empezar(Fase fase) {
+        if (!activo) return;
+        actual = fase;
+        draw0 = gl.getDrawCalls();
+        tex0 = gl.getTextureBindings();
+        shader0 = gl.getShaderSwitches();
+        llamadas0 = gl.getCalls();
+        t0 = System.nanoTime();
+    }
+
+    public void terminar() {
+        if (!activo || actual == null) return;
+        int i = actual.ordinal();
+        nanos[i] += System.nanoTime() - t0;
+        drawCalls[i] += gl.getDrawCalls() - draw0;
+        texturas[i] += gl.getTextureBindings() - tex0;
+        shaders[i] += gl.getShaderSwitches() - shader0;
+        llamadas[i] += gl.getCalls() - llamadas0;
+        actual = null;
+    }
+
+    public void terminarFrame() {
+        if (!activo) return;
+        for (int i = 0; i < FASES.length; i++) {
+            float ms = nanos[i] / 1e6f;
+            msSuavizado[i] = (msSuavizado[i] == 0f) ? ms : msSuavizado[i] + (ms - msSuavizado[i]) * SUAVIZADO;
+            drawCallsFrame[i] = drawCalls[i];
+            texturasFrame[i] = texturas[i];
+            shadersFrame[i] = shaders[i];
+            llamadasFrame[i] = llamadas[i];
+        }
+    }
+
+    // =========================
+    // Lectura (último frame)
+    // =========================
+
+    public float getMs(Fase f) {
+        return msSuavizado[f.ordinal()];
+    }
+
+    public int getDrawCalls(Fase f) {
+        return drawCallsFrame[f.ordinal()];
+    }
+
+    public int getCambiosTextura(Fase f) {
+        return texturasFrame[f.ordinal()];
+    }
+
+    public int getCambiosShader(Fase f) {
+        return shadersFrame[f.ordinal()];
+    }
+
+    public int getLlamadasGL(Fase f) {
+        return llamadasFrame[f.ordinal()];
+    }
+
+    public float getMsTotal() {
+        float t = 0f;
+        for (float ms : msSuavizado) t += ms;
+        return t;
+    }
+}
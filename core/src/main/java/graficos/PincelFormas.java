@@ -0,0 +1,89 @@
+package graficos;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Formas simples (rectángulos llenos y bordes) dibujadas con el MISMO Batch que los sprites,
+ * como regiones teñidas de una textura blanca de 1x1.
+ *
+ * Reemplaza a ShapeRenderer en el loop: no hay que cortar el batch (flush + cambio de shader)
+ * para dibujar puertas, fondos del HUD o celdas del minimapa entre sprites.
+ *
+ * Si se le pasa la región "blanco" del atlas de personajes, las formas comparten textura
+ * con los sprites y ni siquiera cambia la textura del batch.
+ *
+ * Uso: siempre entre batch.begin() y batch.end(). Deja el color del batch como estaba.
+ */
+public class PincelFormas implements Disposable {
+
+    private final Batch batch;
+    /** Textura propia, o null si la región es prestada (atlas). */
+    private final Texture blanca;
+    private final TextureRegion region;
+
+    private float color = Color.WHITE.toFloatBits();
+
+    public PincelFormas(Batch batch) {
+        this(batch, null);
+    }
+
+    /** @param blanco región blanca ya cargada (no se libera acá); null = crear una textura propia de 1x1 */
+    public PincelFormas(Batch batch, TextureRegion blanco) {
+        this.batch = batch;
+
+        if (blanco != null) {
+            blanca = null;
+            region = blanco;
+            return;
+        }
+
+        Pixmap pm = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        pm.setColor(Color.WHITE);
+        pm.fill();
+        blanca = new Texture(pm);
+        pm.dispose();
+
+        region = new TextureRegion(blanca);
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setColor(Color c) {
+        color = c.toFloatBits();
+    }
+
+    public void setColor(float r, float g, float b, float a) {
+        color = Color.toFloatBits(r, g, b, a);
+    }
+
+    /** Rectángulo lleno con el color actual. */
+    public void rect(float x, float y, float ancho, float alto) {
+        float anterior = batch.getPackedColor();
+        batch.setPackedColor(color);
+        batch.draw(region, x, y, ancho, alto);
+        batch.setPackedColor(anterior);
+    }
+
+    /** Borde de un rectángulo (hacia adentro) con el color actual. */
+    public void borde(float x, float y, float ancho, float alto, float grosor) {
+        float anterior = batch.getPackedColor();
+        batch.setPackedColor(color);
+        batch.draw(region, x, y, ancho, grosor);                          // abajo
+        batch.draw(region, x, y + alto - grosor, ancho, grosor);          // arriba
+        batch.draw(region, x, y + grosor, grosor, alto - 2 * grosor);     // izquierda
+        batch.draw(region, x + ancho - grosor, y + grosor, grosor, alto - 2 * grosor); // derecha
+        batch.setPackedColor(anterior);
+    }
+
+    @Override
+    public void dispose() {
+        if (blanca != null) blanca.dispose();
+    }
+}
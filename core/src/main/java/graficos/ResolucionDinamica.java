@@ -0,0 +1,176 @@
+package graficos;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * Resolución dinámica del pase del mundo (tiles, puertas, sprites).
+ *
+ * - El mundo se dibuja en un FrameBuffer del tamaño en pantalla del viewport, pero usando solo
+ *   un rectángulo de (ancho * escala) x (alto * escala): cambiar la escala no recrea nada.
+ * - Después ese rectángulo se estira al rectángulo del FitViewport de CamaraDeSala.
+ *   El HUD se dibuja aparte, a resolución nativa.
+ * - La escala sigue al tiempo de TRABAJO del frame (de inicio de Partida.render a fin del dibujo,
+ *   sin la espera de vsync): si el promedio se acerca al presupuesto (1 / refresco) baja un paso;
+ *   si se mantiene bien por debajo un rato, sube un paso. Con histéresis, para no oscilar.
+ *   El delta de Gdx no sirve: con vsync cada frame que llega a tiempo mide justo el presupuesto
+ *   y nunca se vería margen para subir.
+ *
+ * Apagada ({@link #setActiva(boolean)}), el mundo va directo a pantalla como antes.
+ */
+public class ResolucionDinamica implements Disposable {
+
+    public static final float ESCALA_MIN = 0.5f;
+    public static final float ESCALA_MAX = 1f;
+    private static final float PASO = 0.1f;
+
+    /** Bajar si el promedio pasa presupuesto * esto; subir si queda por debajo de presupuesto * HOLGADO. */
+    private static final float EXCEDIDO = 0.95f;
+    private static final float HOLGADO = 0.7f;
+    /** Segundos holgados seguidos antes de subir, y de espera tras cada cambio. */
+    private static final float TIEMPO_PARA_SUBIR = 2f;
+    private static final float ESPERA_TRAS_CAMBIO = 0.5f;
+
+    private boolean activa = true;
+    private float escala = ESCALA_MAX;
+
+    private float presupuesto;
+    private float tiempoMedio;
+    private float tiempoHolgado;
+    private float espera;
+
+    private FrameBuffer fbo;
+    private final TextureRegion region = new TextureRegion();
+    private final Matrix4 proyeccion = new Matrix4().setToOrtho2D(0, 0, 1, 1);
+
+    private int anchoEscalado;
+    private int altoEscalado;
+    private boolean enMundo;
+
+    public ResolucionDinamica() {
+        int hz = Gdx.graphics.getDisplayMode().refreshRate;
+        presupuesto = 1f / Math.max(30, hz);
+    }
+
+    public boolean isActiva() {
+        return activa;
+    }
+
+    public void setActiva(boolean activa) {
+        this.activa = activa;
+        if (!activa) escala = ESCALA_MAX;
+        tiempoMedio = 0f;
+        tiempoHolgado = 0f;
+    }
+
+    public float getEscala() {
+        return escala;
+    }
+
+    /**
+     * Una vez por frame.
+     * @param delta   delta de Gdx (con vsync): solo para las esperas en segundos
+     * @param trabajo tiempo de trabajo del frame en segundos, SIN la espera de vsync: es lo que se controla
+     */
+    public void medir(float delta, float trabajo) {
+        if (!activa) return;
+        if (delta > 0.25f || trabajo <= 0f || trabajo > 0.25f) return; // breakpoint, carga de piso: no es el costo del frame
+
+        tiempoMedio = (tiempoMedio == 0f) ? trabajo : tiempoMedio + (trabajo - tiempoMedio) * 0.1f;
+
+        if (espera > 0f) {
+            espera -= delta;
+            return;
+        }
+
+        if (tiempoMedio > presupuesto * EXCEDIDO) {
+            tiempoHolgado = 0f;
+            if (escala > ESCALA_MIN) cambiarEscala(escala - PASO);
+        } else if (tiempoMedio < presupuesto * HOLGADO) {
+            tiempoHolgado += delta;
+            if (tiempoHolgado >= TIEMPO_PARA_SUBIR && escala < ESCALA_MAX) {
+                tiempoHolgado = 0f;
+                cambiarEscala(escala + PASO);
+            }
+        } else {
+            tiempoHolgado = 0f;
+        }
+    }
+
+    private void cambiarEscala(float nueva) {
+        escala = Math.max(ESCALA_MIN, Math.min(ESCALA_MAX, Math.round(nueva * 10f) / 10f));
+        espera = ESPERA_TRAS_CAMBIO;
+        tiempoMedio = 0f; // que el promedio se rehaga con la escala nueva (arranca del próximo frame)
+    }
+
+    /**
+     * Empieza el pase del mundo: activa el FrameBuffer y el sub-rectángulo escalado y lo limpia
+     * con el glClearColor actual. Apagada, solo aplica el viewport.
+     */
+    public void empezarMundo(Viewport vp) {
+        if (!activa) {
+            vp.apply();
+            return;
+        }
+
+        float hdpi = (float) Gdx.graphics.getBackBufferWidth() / Math.max(1, Gdx.graphics.getWidth());
+        int ancho = Math.max(1, Math.round(vp.getScreenWidth() * hdpi));
+        int alto = Math.max(1, Math.round(vp.getScreenHeight() * hdpi));
+        asegurarBuffer(ancho, alto);
+
+        anchoEscalado = Math.max(1, Math.round(ancho * escala));
+        altoEscalado = Math.max(1, Math.round(alto * escala));
+
+        fbo.begin();
+        Gdx.gl.glViewport(0, 0, anchoEscalado, altoEscalado);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        enMundo = true;
+    }
+
+    /**
+     * Cierra el pase del mundo y lo estira al rectángulo del viewport (quedan aplicados
+     * el viewport y su cámara, para lo que se dibuje encima en coordenadas de mundo).
+     */
+    public void terminarMundo(Viewport vp, Batch batch) {
+        if (!enMundo) return;
+        enMundo = false;
+
+        fbo.end();
+        vp.apply();
+
+        region.setRegion(fbo.getColorBufferTexture());
+        region.setRegion(0, 0, anchoEscalado, altoEscalado);
+        region.flip(false, true); // los FrameBuffer quedan dados vuelta en Y
+
+        // El buffer es opaco: copiarlo sin blending
+        batch.setProjectionMatrix(proyeccion);
+        batch.disableBlending();
+        batch.begin();
+        batch.draw(region, 0f, 0f, 1f, 1f);
+        batch.end();
+        batch.enableBlending();
+    }
+
+    private void asegurarBuffer(int ancho, int alto) {
+        if (fbo != null && fbo.getWidth() == ancho && fbo.getHeight() == alto) return;
+        if (fbo != null) fbo.dispose();
+
+        fbo = new FrameBuffer(Pixmap.Format.RGBA8888, ancho, alto, false);
+        // Linear: al estirar una escala no entera se ve mejor que Nearest
+        fbo.getColorBufferTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+    }
+
+    @Override
+    public void dispose() {
+        if (fbo != null) fbo.dispose();
+        fbo = null;
+    }
+}
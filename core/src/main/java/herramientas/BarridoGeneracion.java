@@ -0,0 +1,210 @@
+package herramientas;
+
+import mapa.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Barrido headless del generador de pisos: sin GL, sin Gdx.app, solo el paquete mapa.
+ *
+ * Genera N semillas por nivel en paralelo (todos los núcleos) y muestra:
+ * - distribución del largo del camino
+ * - salas por tipo (mín / media / máx por piso)
+ * - cuántos pisos terminan en fallback (y qué semillas, para reproducirlas)
+ * - tiempo de CPU por piso: p50 / p99 / máx, y las semillas más lentas. Es CPU del hilo que
+ *   genera y no tiempo de reloj: con todos los núcleos ocupados, el reloj mediría también
+ *   la espera por núcleo.
+ *
+ * Uso: ./gradlew :core:barridoPisos --args="--semillas 5000 --niveles 1,2,3"
+ *
+ * Opciones:
+ *   --semillas N        semillas por nivel (default 1000)
+ *   --niveles a,b,c     niveles a probar (default 1,2,3)
+ *   --base S            primera semilla; se prueban base .. base+N-1 (default 0)
+ *   --reintentos        generar con GeneradorConReintentos (como el juego) en vez del intento 0 solo.
+ *                       El intento 0 corre en el hilo de la semilla; la carrera (solo en FALLBACK)
+ *                       corre en otros hilos y su CPU no entra en el tiempo de la semilla.
+ *   --presupuesto MS    tope de búsqueda por piso (default 0 = sin tope)
+ */
+public final class BarridoGeneracion {
+
+    private static final int PEORES = 5;
+
+    private static final ThreadMXBean CPU = ManagementFactory.getThreadMXBean();
+
+    /** Resultado de una semilla. */
+    private record Muestra(long semilla, int largo, int[] porTipo,
+                           GeneradorMapa.Calidad calidad, long nanos, long nodos) {}
+
+    private BarridoGeneracion() {}
+
+    public static void main(String[] args) {
+        int semillas = 1000;
+        int[] niveles = {1, 2, 3};
+        long base = 0;
+        boolean reintentos = false;
+        long presupuestoMs = 0;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--semillas" -> semillas = Integer.parseInt(args[++i]);
+                case "--niveles" -> niveles = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--base" -> base = Long.parseLong(args[++i]);
+                case "--reintentos" -> reintentos = true;
+                case "--presupuesto" -> presupuestoMs = Long.parseLong(args[++i]);
+                default -> {
+                    System.err.println("Opción desconocida: " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+
+        // Sin Gdx.app: el generador loguea por RegistroMapa; acá no queremos ni una línea por piso
+        RegistroMapa.activo = false;
+
+        System.out.println("Barrido de generación: " + semillas + " semillas por nivel, base " + base +
+            ", " + Runtime.getRuntime().availableProcessors() + " núcleos" +
+            (reintentos ? ", con reintentos" : "") +
+            (CPU.isCurrentThreadCpuTimeSupported() ? ", tiempos de CPU" : ", tiempos de reloj (sin CPU por hilo)") +
+            (presupuestoMs > 0 ? ", presupuesto " + presupuestoMs + " ms" : ""));
+
+        for (int nivel : niveles) {
+            // Calentar el JIT para que las primeras semillas no inflen el p99
+            generarRango(nivel, base, Math.min(semillas, 200), reintentos, presupuestoMs);
+
+            long t0 = System.nanoTime();
+            Muestra[] muestras = generarRango(nivel, base, semillas, reintentos, presupuestoMs);
+            long total = System.nanoTime() - t0;
+
+            reportar(nivel, muestras, total);
+        }
+    }
+
+    private static Muestra[] generarRango(int nivel, long base, int n, boolean reintentos, long presupuestoMs) {
+        Muestra[] out = new Muestra[n];
+        IntStream.range(0, n).parallel().forEach(i ->
+            out[i] = generarUna(nivel, base + i, reintentos, presupuestoMs));
+        return out;
+    }
+
+    private static Muestra generarUna(int nivel, long semilla, boolean reintentos, long presupuestoMs) {
+        GeneradorMapa.Configuracion cfg = new GeneradorMapa.Configuracion();
+        cfg.nivel = nivel;
+        cfg.semilla = semilla;
+        cfg.presupuestoMs = presupuestoMs;
+
+        long t0 = ahora();
+        DisposicionMapa d;
+        GeneradorMapa gen;
+        if (reintentos) {
+            GeneradorConReintentos.Resultado r =
+                new GeneradorConReintentos(cfg, Arrays.asList(Habitacion.values())).generar();
+            d = r.disposicion();
+            gen = r.generador();
+        } else {
+            GrafoPuertas grafo = new GrafoPuertas(Arrays.asList(Habitacion.values()), new Random(semilla));
+            gen = new GeneradorMapa(cfg, grafo);
+            d = gen.generar();
+        }
+        long nanos = ahora() - t0;
+
+        int[] porTipo = new int[TipoSala.values().length];
+        for (Habitacion h : d.getCamino()) porTipo[h.tipo.ordinal()]++;
+
+        return new Muestra(semilla, d.getCamino().size(), porTipo, gen.getCalidad(), nanos, gen.getNodosExpandidos());
+    }
+
+    /** CPU del hilo actual en ns; si la JVM no lo da, reloj. */
+    private static long ahora() {
+        return CPU.isCurrentThreadCpuTimeSupported() ? CPU.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    // =========================
+    // Reporte
+    // =========================
+
+    private static void reportar(int nivel, Muestra[] m, long nanosTotal) {
+        int n = m.length;
+        System.out.println();
+        System.out.printf("== Nivel %d: %d pisos en %.1f s ==%n", nivel, n, nanosTotal / 1e9);
+        if (n == 0) return;
+
+        // --- calidad ---
+        int[] porCalidad = new int[GeneradorMapa.Calidad.values().length];
+        for (Muestra x : m) porCalidad[x.calidad().ordinal()]++;
+        for (GeneradorMapa.Calidad c : GeneradorMapa.Calidad.values()) {
+            System.out.printf("  %-15s %7d (%5.2f%%)%n", c, porCalidad[c.ordinal()], 100.0 * porCalidad[c.ordinal()] / n);
+        }
+
+        // --- largo del camino ---
+        TreeMap<Integer, Integer> porLargo = new TreeMap<>();
+        for (Muestra x : m) porLargo.merge(x.largo(), 1, Integer::sum);
+        System.out.println("  Largo del camino:");
+        for (var e : porLargo.entrySet()) {
+            double pct = 100.0 * e.getValue() / n;
+            System.out.printf("    %3d salas: %7d (%5.1f%%) %s%n", e.getKey(), e.getValue(), pct, barra(pct));
+        }
+
+        // --- salas por tipo ---
+        System.out.println("  Salas por tipo (mín / media / máx):");
+        for (TipoSala t : TipoSala.values()) {
+            int min = Integer.MAX_VALUE, max = 0;
+            long suma = 0;
+            for (Muestra x : m) {
+                int c = x.porTipo()[t.ordinal()];
+                min = Math.min(min, c);
+                max = Math.max(max, c);
+                suma += c;
+            }
+            System.out.printf("    %-9s %2d / %5.2f / %2d%n", t, min, (double) suma / n, max);
+        }
+
+        // --- tiempos ---
+        long[] nanos = new long[n];
+        long nodos = 0;
+        for (int i = 0; i < n; i++) {
+            nanos[i] = m[i].nanos();
+            nodos += m[i].nodos();
+        }
+        Arrays.sort(nanos);
+        System.out.printf("  Tiempo de CPU por piso (ms): p50 %.2f  p99 %.2f  máx %.2f   (%.0f nodos de media)%n",
+            percentil(nanos, 0.50) / 1e6, percentil(nanos, 0.99) / 1e6, nanos[n - 1] / 1e6, (double) nodos / n);
+
+        Muestra[] lentas = m.clone();
+        Arrays.sort(lentas, Comparator.comparingLong(Muestra::nanos).reversed());
+        StringBuilder sb = new StringBuilder("  Más lentas:");
+        for (int i = 0; i < Math.min(PEORES, n); i++) {
+            sb.append(String.format(" %d (%.1f ms, %d nodos)", lentas[i].semilla(), lentas[i].nanos() / 1e6, lentas[i].nodos()));
+            if (i < Math.min(PEORES, n) - 1) sb.append(',');
+        }
+        System.out.println(sb);
+
+        // --- semillas en fallback (para reproducir) ---
+        if (porCalidad[GeneradorMapa.Calidad.FALLBACK.ordinal()] > 0) {
+            StringBuilder fb = new StringBuilder("  Semillas en fallback:");
+            int mostradas = 0;
+            for (Muestra x : m) {
+                if (x.calidad() != GeneradorMapa.Calidad.FALLBACK) continue;
+                if (mostradas++ == 20) {
+                    fb.append(" ...");
+                    break;
+                }
+                fb.append(' ').append(x.semilla());
+            }
+            System.out.println(fb);
+        }
+    }
+
+    /** Percentil por rango más cercano sobre un arreglo ya ordenado. */
+    private static long percentil(long[] ordenado, double p) {
+        int i = (int) Math.ceil(p * ordenado.length) - 1;
+        return ordenado[Math.max(0, Math.min(ordenado.length - 1, i))];
+    }
+
+    private static String barra(double pct) {
+        return "#".repeat((int) Math.round(pct / 2));
+    }
+}
@@ -1,22 +1,33 @@
 package interfaces;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.utils.Disposable;
 
 import entidades.Jugador;
 import entidades.Item;
+import graficos.PincelFormas;
 import mapa.*;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 
 public class HudJuego implements Disposable, ListenerCambioSala {
 
     private final DisposicionMapa disposicion;
-    private final Jugador jugador;
+    /** Vista viva de los jugadores (GestorDeEntidades.getJugadores()). */
+    private final Collection<Jugador> jugadores;
 
     private Habitacion salaActual;
 
@@ -25,21 +36,57 @@ public class HudJuego implements Disposable, ListenerCambioSala {
 
     private final OrthographicCamera cam;
     private final SpriteBatch batch;
-    private final ShapeRenderer shapes;
+    /** Formas del minimapa por el mismo SpriteBatch del HUD (sin ShapeRenderer aparte). */
+    private final PincelFormas pincel;
     private final BitmapFont font;
 
     private int screenWidth;
     private int screenHeight;
 
-    public HudJuego(DisposicionMapa disposicion, Jugador jugador) {
+    // --- Minimapa cacheado ---
+    // Se dibuja a un FrameBuffer solo cuando cambia (sala actual o salas descubiertas);
+    // el resto de los frames es un único quad texturado dentro del batch del HUD.
+    private static final float ROOM_W = 18f;
+    private static final float ROOM_H = 14f;
+    private static final float GAP = 8f;
+    private static final float MARGEN = 6f;
+
+    // --- Paneles por jugador (vida / ítems) ---
+    // Un panel por jugador, uno al lado del otro arriba a la izquierda. Todos se dibujan en la
+    // MISMA pasada del batch con la misma fuente: la cantidad de draw calls no crece con N.
+    private static final float ANCHO_PANEL = 190f;
+
+    private final List<PanelJugador> paneles = new ArrayList<>();
+    private final StringBuilder textoTmp = new StringBuilder();
+
+    /** Texto cacheado de un jugador. Se rearma solo cuando cambia Jugador.getVersionEstado(). */
+    private static final class PanelJugador {
+        final Jugador jugador;
+        final GlyphLayout vida = new GlyphLayout();
+        final GlyphLayout items = new GlyphLayout();
+        int versionDibujada = Integer.MIN_VALUE;
+
+        PanelJugador(Jugador jugador) {
+            this.jugador = jugador;
+        }
+    }
+
+    private FrameBuffer fboMinimapa;
+    private final Matrix4 proyeccionMinimapa = new Matrix4();
+    private TextureRegion regionMinimapa;
+    private boolean minimapaSucio = true;
+    private int versionLayoutDibujada = -1;
+
+    public HudJuego(DisposicionMapa disposicion, Collection<Jugador> jugadores) {
         this.disposicion = disposicion;
-        this.jugador = jugador;
+        this.jugadores = jugadores;
 
         this.salaActual = disposicion.salaInicio();
 
         // Si tu LayoutMinimapa actual requiere (disposicion, grafo),
         // dejalo como está por ahora, pero lo ideal es que use conexionesPiso.
         this.layout = LayoutMinimapa.construir(disposicion);
+        this.layout.sincronizar(disposicion.getDescubiertas());
 
         this.screenWidth = Gdx.graphics.getWidth();
         this.screenHeight = Gdx.graphics.getHeight();
@@ -48,17 +95,22 @@ public class HudJuego implements Disposable, ListenerCambioSala {
         cam.setToOrtho(false, screenWidth, screenHeight);
 
         batch = new SpriteBatch();
-        shapes = new ShapeRenderer();
+        pincel = new PincelFormas(batch);
         font = new BitmapFont();
     }
 
     public void actualizarSalaActual(Habitacion nuevaSala) {
+        if (nuevaSala != salaActual) minimapaSucio = true;
         this.salaActual = nuevaSala;
     }
 
     @Override
     public void salaCambiada(Habitacion salaAnterior, Habitacion salaNueva) {
         actualizarSalaActual(salaNueva);
+        // Hook incremental: solo se agregan al layout las salas/pasillos recién descubiertos
+        layout.sincronizar(disposicion.getDescubiertas());
+        // El borde de la sala actual está dentro de la textura: hay que redibujar
+        minimapaSucio = true;
     }
 
     public void resize(int width, int height) {
@@ -68,135 +120,196 @@ public class HudJuego implements Disposable, ListenerCambioSala {
     }
 
     public void render() {
+        // Fuera del batch: si el minimapa cambió, se vuelve a dibujar a su FrameBuffer
+        actualizarMinimapa();
+
         cam.update();
 
         batch.setProjectionMatrix(cam.combined);
         batch.begin();
-        dibujarVida();
-        dibujarItems();
+        dibujarPaneles();
+        dibujarMinimapa();
         batch.end();
+    }
 
-        shapes.setProjectionMatrix(cam.combined);
-        dibujarMinimapaExplorado();
+    /** Draw calls del batch del HUD en el último render (SpriteBatch.renderCalls). */
+    public int getRenderCalls() {
+        return batch.renderCalls;
     }
 
-    private void dibujarVida() {
-        StringBuilder sb = new StringBuilder("Vida: ");
+    /** Rearma la lista de paneles si cambió la cantidad de jugadores (orden por id). */
+    private void sincronizarPaneles() {
+        if (paneles.size() == jugadores.size()) return;
+
+        paneles.clear();
+        for (Jugador j : jugadores) paneles.add(new PanelJugador(j));
+        paneles.sort(Comparator.comparingInt(p -> p.jugador.getId()));
+    }
+
+    /** Rearma los GlyphLayout de vida e ítems si el jugador cambió desde el último frame. */
+    private void actualizarTextos(PanelJugador p) {
+        Jugador jugador = p.jugador;
+        int version = jugador.getVersionEstado();
+        if (version == p.versionDibujada) return;
+
+        textoTmp.setLength(0);
+        textoTmp.append(jugador.getNombre()).append("  Vida: ");
         int vidaActual = jugador.getVida();
         int vidaMax = jugador.getVidaMaxima();
-        for (int i = 0; i < vidaMax; i++) sb.append(i < vidaActual ? "♥" : "♡");
-        font.draw(batch, sb.toString(), 20, screenHeight - 20);
+        for (int i = 0; i < vidaMax; i++) textoTmp.append(i < vidaActual ? '♥' : '♡');
+        p.vida.setText(font, textoTmp);
+
+        textoTmp.setLength(0);
+        textoTmp.append("Items:");
+        for (Item item : jugador.getObjetos()) {
+            textoTmp.append("\n- ").append(item.getNombre());
+        }
+        p.items.setText(font, textoTmp);
+
+        p.versionDibujada = version;
     }
 
-    private void dibujarItems() {
-        float x = screenWidth - 120f;
-        float y = screenHeight - 180f;
-        font.draw(batch, "Items:", x, y);
-        y -= 18f;
+    private void dibujarPaneles() {
+        sincronizarPaneles();
 
-        for (Item item : jugador.getObjetos()) {
-            font.draw(batch, "- " + item.getNombre(), x, y);
-            y -= 16f;
+        float y = screenHeight - 20f;
+        for (int i = 0; i < paneles.size(); i++) {
+            PanelJugador p = paneles.get(i);
+            actualizarTextos(p);
+
+            float x = 20f + i * ANCHO_PANEL;
+            font.draw(batch, p.vida, x, y);
+            font.draw(batch, p.items, x, y - p.vida.height - 12f);
         }
     }
 
-    private void dibujarMinimapaExplorado() {
-        Set<Habitacion> descubiertas = disposicion.getDescubiertas();
+    private float anchoMinimapa() {
+        int widthCells = layout.maxX() - layout.minX() + 1;
+        return widthCells * ROOM_W + (widthCells - 1) * GAP;
+    }
 
-        final float roomW = 18f;
-        final float roomH = 14f;
-        final float gap = 8f;
+    private float altoMinimapa() {
+        int heightCells = layout.maxY() - layout.minY() + 1;
+        return heightCells * ROOM_H + (heightCells - 1) * GAP;
+    }
 
-        int minX = layout.minX(), maxX = layout.maxX();
-        int minY = layout.minY(), maxY = layout.maxY();
+    /** Redibuja el FrameBuffer si cambió algo desde la última vez. */
+    private void actualizarMinimapa() {
+        // Por si alguien descubrió una sala sin pasar por salaCambiada (comparar tamaños no aloca)
+        if (disposicion.getDescubiertas().tamanio() != layout.cantidadSalasVisibles()) {
+            layout.sincronizar(disposicion.getDescubiertas());
+        }
+        if (layout.version() != versionLayoutDibujada) minimapaSucio = true;
+        if (!minimapaSucio && fboMinimapa != null) return;
+
+        int w = (int) Math.ceil(anchoMinimapa() + 2 * MARGEN);
+        int h = (int) Math.ceil(altoMinimapa() + 2 * MARGEN);
+
+        // El tamaño solo depende del layout (fijo por piso): se crea una vez
+        if (fboMinimapa == null) {
+            fboMinimapa = new FrameBuffer(Pixmap.Format.RGBA8888, w, h, false);
+            Texture tex = fboMinimapa.getColorBufferTexture();
+            tex.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+            regionMinimapa = new TextureRegion(tex);
+            regionMinimapa.flip(false, true); // los FrameBuffer quedan dados vuelta en Y
+        }
 
-        int widthCells = (maxX - minX + 1);
-        int heightCells = (maxY - minY + 1);
+        fboMinimapa.begin();
+        Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        float mapW = widthCells * roomW + (widthCells - 1) * gap;
-        float mapH = heightCells * roomH + (heightCells - 1) * gap;
+        // Sin blending: cada celda escribe su color y alfa tal cual (el blend se hace al dibujar el quad)
+        batch.setProjectionMatrix(proyeccionMinimapa.setToOrtho2D(0, 0, w, h));
+        batch.disableBlending();
+        batch.begin();
+        dibujarMinimapaExplorado(MARGEN, MARGEN);
+        batch.end();
+        batch.enableBlending();
+
+        fboMinimapa.end();
+
+        versionLayoutDibujada = layout.version();
+        minimapaSucio = false;
+    }
 
+    /** Un quad con la textura cacheada + el título (dentro del batch del HUD). */
+    private void dibujarMinimapa() {
+        if (regionMinimapa == null) return;
+
+        float mapW = anchoMinimapa();
+        float mapH = altoMinimapa();
         float baseX = screenWidth - mapW - 20f;
         float baseY = screenHeight - mapH - 40f;
 
+        batch.draw(regionMinimapa, baseX - MARGEN, baseY - MARGEN,
+            regionMinimapa.getRegionWidth(), regionMinimapa.getRegionHeight());
+        font.draw(batch, "Minimapa (explorado)", baseX, baseY - 12f);
+    }
+
+    /** Dibuja el minimapa con el pincel (batch ya abierto) con la esquina de las salas en (baseX, baseY). */
+    private void dibujarMinimapaExplorado(float baseX, float baseY) {
+        final float roomW = ROOM_W;
+        final float roomH = ROOM_H;
+        final float gap = GAP;
+
+        int minX = layout.minX();
+        int minY = layout.minY();
+
+        float mapW = anchoMinimapa();
+        float mapH = altoMinimapa();
+
         // Fondo
-        shapes.begin(ShapeRenderer.ShapeType.Filled);
-        shapes.setColor(0f, 0f, 0f, 0.55f);
-        shapes.rect(baseX - 6, baseY - 6, mapW + 12, mapH + 12);
-        shapes.end();
-
-        // Pasillos: solo conexionesPiso y solo entre descubiertas
-        shapes.begin(ShapeRenderer.ShapeType.Filled);
-        shapes.setColor(0.85f, 0.85f, 0.85f, 1f);
-
-        for (Habitacion h : disposicion.getSalasActivas()) {
-            if (!descubiertas.contains(h)) continue;
-
-            for (var e : disposicion.getConexionesEnPiso(h).entrySet()) {
-                Habitacion dest = e.getValue();
-                if (dest == null) continue;
-                if (!descubiertas.contains(dest)) continue;
-
-                // Pasillo según layout
-                for (PosMini p : layout.pasilloEntre(h, dest)) {
-                    float x = baseX + (p.x() - minX) * (roomW + gap);
-                    float y = baseY + (p.y() - minY) * (roomH + gap);
-                    shapes.rect(x + roomW * 0.25f, y + roomH * 0.25f, roomW * 0.5f, roomH * 0.5f);
-                }
+        pincel.setColor(0f, 0f, 0f, 0.55f);
+        pincel.rect(baseX - MARGEN, baseY - MARGEN, mapW + 2 * MARGEN, mapH + 2 * MARGEN);
+
+        // Pasillos: solo conexionesPiso y solo entre descubiertas (el layout ya los tiene filtrados)
+        pincel.setColor(0.85f, 0.85f, 0.85f, 1f);
+        for (int i = 0; i < layout.cantidadAristasVisibles(); i++) {
+            int e = layout.aristaVisible(i);
+            for (int k = 0; k < layout.largoPasillo(e); k++) {
+                float x = baseX + (layout.pasilloX(e, k) - minX) * (roomW + gap);
+                float y = baseY + (layout.pasilloY(e, k) - minY) * (roomH + gap);
+                pincel.rect(x + roomW * 0.25f, y + roomH * 0.25f, roomW * 0.5f, roomH * 0.5f);
             }
         }
-        shapes.end();
 
         // Salas
-        shapes.begin(ShapeRenderer.ShapeType.Filled);
-        for (Habitacion h : disposicion.getSalasActivas()) {
-            if (!descubiertas.contains(h)) continue;
-
-            PosMini p = layout.posiciones().get(h);
-            if (p == null) continue;
+        for (int i = 0; i < layout.cantidadSalasVisibles(); i++) {
+            Habitacion h = layout.salaVisible(i);
 
-            float x = baseX + (p.x() - minX) * (roomW + gap);
-            float y = baseY + (p.y() - minY) * (roomH + gap);
+            float x = baseX + (layout.x(h) - minX) * (roomW + gap);
+            float y = baseY + (layout.y(h) - minY) * (roomH + gap);
 
-            setColorSala(shapes, h);
-            shapes.rect(x, y, roomW, roomH);
+            setColorSala(h);
+            pincel.rect(x, y, roomW, roomH);
         }
-        shapes.end();
 
         // Borde sala actual
-        if (salaActual != null && descubiertas.contains(salaActual)) {
-            PosMini p = layout.posiciones().get(salaActual);
-            if (p != null) {
-                float x = baseX + (p.x() - minX) * (roomW + gap);
-                float y = baseY + (p.y() - minY) * (roomH + gap);
-
-                shapes.begin(ShapeRenderer.ShapeType.Line);
-                shapes.setColor(1f, 1f, 1f, 1f);
-                shapes.rect(x - 1, y - 1, roomW + 2, roomH + 2);
-                shapes.end();
-            }
-        }
+        if (salaActual != null && layout.estaVisible(salaActual)) {
+            float x = baseX + (layout.x(salaActual) - minX) * (roomW + gap);
+            float y = baseY + (layout.y(salaActual) - minY) * (roomH + gap);
 
-        batch.begin();
-        font.draw(batch, "Minimapa (explorado)", baseX, baseY - 12f);
-        batch.end();
+            pincel.setColor(1f, 1f, 1f, 1f);
+            pincel.borde(x - 1, y - 1, roomW + 2, roomH + 2, 1f);
+        }
     }
 
-    private void setColorSala(ShapeRenderer sr, Habitacion h) {
+    private void setColorSala(Habitacion h) {
         switch (h.tipo) {
-            case INICIO -> sr.setColor(0.95f, 0.95f, 0.95f, 1f);
-            case ACERTIJO -> sr.setColor(0.35f, 0.65f, 1f, 1f);
-            case COMBATE -> sr.setColor(1f, 0.25f, 0.25f, 1f);
-            case BOTIN -> sr.setColor(1f, 1f, 0.35f, 1f);
-            case JEFE -> sr.setColor(0.85f, 0.35f, 1f, 1f);
-            default -> sr.setColor(0.6f, 0.6f, 0.6f, 1f);
+            case INICIO -> pincel.setColor(0.95f, 0.95f, 0.95f, 1f);
+            case ACERTIJO -> pincel.setColor(0.35f, 0.65f, 1f, 1f);
+            case COMBATE -> pincel.setColor(1f, 0.25f, 0.25f, 1f);
+            case BOTIN -> pincel.setColor(1f, 1f, 0.35f, 1f);
+            case JEFE -> pincel.setColor(0.85f, 0.35f, 1f, 1f);
+            default -> pincel.setColor(0.6f, 0.6f, 0.6f, 1f);
         }
     }
 
     @Override
     public void dispose() {
+        if (fboMinimapa != null) fboMinimapa.dispose();
         batch.dispose();
-        shapes.dispose();
+        pincel.dispose();
         font.dispose();
     }
 }
@@ -0,0 +1,101 @@
+package interfaces;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+import graficos.PerfilRender;
+
+/**
+ * Overlay de estadísticas de render (F3 en Partida).
+ *
+ * Una fila por fase de Partida.render con ms de CPU, draw calls, cambios de textura,
+ * cambios de shader y llamadas GL, más los datos sueltos que le pase Partida
+ * (renderCalls de los batches, entidades dibujadas/descartadas).
+ *
+ * Tiene su propio batch y fuente: se dibuja al final, fuera de lo que se mide.
+ */
+public class OverlayPerfil implements Disposable {
+
+    private final OrthographicCamera cam = new OrthographicCamera();
+    private final SpriteBatch batch = new SpriteBatch();
+    private final BitmapFont font = new BitmapFont();
+    private final StringBuilder sb = new StringBuilder(256);
+
+    /** x de cada columna de la tabla, relativo al margen (la fuente no es monoespaciada). */
+    private static final float[] COLUMNAS = {0f, 100f, 150f, 195f, 235f, 275f};
+    private static final String[] TITULOS = {"fase", "ms", "draw", "tex", "shd", "gl"};
+
+    public OverlayPerfil() {
+        resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    public void resize(int width, int height) {
+        cam.setToOrtho(false, width, height);
+    }
+
+    /**
+     * @param extra líneas sueltas ya armadas por Partida (se dibujan debajo de la tabla)
+     */
+    public void render(PerfilRender perfil, CharSequence extra) {
+        if (!perfil.isActivo()) return;
+
+        cam.update();
+        batch.setProjectionMatrix(cam.combined);
+        batch.begin();
+
+        float x = 10f;
+        float y = cam.viewportHeight - 60f;
+        float linea = font.getLineHeight();
+
+        sb.setLength(0);
+        sb.append(Gdx.graphics.getFramesPerSecond()).append(" fps   CPU ");
+        agregarMs(perfil.getMsTotal());
+        sb.append(" ms");
+        font.draw(batch, sb, x, y);
+        y -= linea;
+
+        for (int c = 0; c < TITULOS.length; c++) font.draw(batch, TITULOS[c], x + COLUMNAS[c], y);
+        y -= linea;
+
+        for (PerfilRender.Fase f : PerfilRender.Fase.values()) {
+            font.draw(batch, f.nombre, x + COLUMNAS[0], y);
+
+            sb.setLength(0);
+            agregarMs(perfil.getMs(f));
+            font.draw(batch, sb, x + COLUMNAS[1], y);
+
+            celda(perfil.getDrawCalls(f), x + COLUMNAS[2], y);
+            celda(perfil.getCambiosTextura(f), x + COLUMNAS[3], y);
+            celda(perfil.getCambiosShader(f), x + COLUMNAS[4], y);
+            celda(perfil.getLlamadasGL(f), x + COLUMNAS[5], y);
+            y -= linea;
+        }
+
+        if (extra != null && extra.length() > 0) {
+            font.draw(batch, extra, x, y);
+        }
+
+        batch.end();
+    }
+
+    private void celda(int valor, float x, float y) {
+        sb.setLength(0);
+        sb.append(valor);
+        font.draw(batch, sb, x, y);
+    }
+
+    /** Dos decimales sin String.format (corre cada frame). */
+    private void agregarMs(float ms) {
+        int centesimas = Math.round(ms * 100f);
+        int dec = centesimas % 100;
+        sb.append(centesimas / 100).append(dec < 10 ? ".0" : ".").append(dec);
+    }
+
+    @Override
+    public void dispose() {
+        batch.dispose();
+        font.dispose();
+    }
+}
@@ -7,7 +7,20 @@ import pantallas.PantallaDeInicio;
 /** {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms. */
 public class Principal extends Game {
 
+    /** Semilla fija de la run (null = una nueva por partida). Ver Lwjgl3Launcher. */
+    private final Long semillaRun;
 
+    public Principal() {
+        this(null);
+    }
+
+    public Principal(Long semillaRun) {
+        this.semillaRun = semillaRun;
+    }
+
+    public Long getSemillaRun() {
+        return semillaRun;
+    }
 
     @Override
     public void create() {
@@ -5,10 +5,9 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.HdpiUtils;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.Fixture;
@@ -20,8 +19,15 @@ import fisica.BotonesDesdeTiled;
 import fisica.ColisionesDesdeTiled;
 import fisica.FisicaMundo;
 import fisica.GeneradorSensoresPuertas;
+import graficos.CacheSprites;
+import graficos.CacheTilesSalas;
+import graficos.CargadorTexturas;
+import graficos.PerfilRender;
+import graficos.ResolucionDinamica;
+import graficos.PincelFormas;
 import interfaces.HudJuego;
 import interfaces.ListenerCambioSala;
+import interfaces.OverlayPerfil;
 import io.github.principal.Principal;
 import mapa.*;
 
@@ -42,11 +48,16 @@ public class Partida {
 
     // --- Render ---
     private SpriteBatch batch;
-    private ShapeRenderer shapeRendererMundo;
+    /** Lo genera :lwjgl3:empaquetarSprites (Jugadores + Enemigos + "blanco"). */
+    private static final String ATLAS_PERSONAJES = "atlas/personajes.atlas";
+
+    /** Formas del mundo (puertas) dentro del mismo batch que tiles y sprites. */
+    private PincelFormas pincelMundo;
 
     // --- Mapa Tiled ---
     private TiledMap mapaTiled;
-    private OrthogonalTiledMapRenderer mapaRenderer;
+    /** Fondo + Obstaculos horneados por sala (reemplaza a OrthogonalTiledMapRenderer). */
+    private CacheTilesSalas tilesSalas;
 
     // --- Cámara ---
     private CamaraDeSala camaraSala;
@@ -56,6 +67,17 @@ public class Partida {
     private Habitacion salaActual;
     private ControlPuzzlePorSala controlPuzzle;
 
+    // --- Pisos (niveles) ---
+    private static final int NIVEL_MAXIMO = 3;
+    private int nivelActual = 1;
+    private long semillaRun;
+    private PipelinePisos pipelinePisos;
+    private PipelinePisos.PisoPreparado pisoActual;
+    private CachePisos cachePisos;
+
+    /** Sensores y muros de puertas del piso actual (se destruyen al pasar de piso). */
+    private final List<Body> cuerposPuertas = new ArrayList<>();
+
     // --- Gestión ---
     private GestorSalas gestorSalas;
     private GestorDeEntidades gestorEntidades;
@@ -68,6 +90,7 @@ public class Partida {
 
     // ✅ Sprites unificados (jugadores + enemigos)
     private final Map<Entidad, SpritesEntidad> spritesPorEntidad = new HashMap<>();
+    private final ColaRenderEntidades colaRender = new ColaRenderEntidades();
 
     // ✅ NUEVO: enemigos que están reproduciendo animación de muerte
     private final Set<Enemigo> enemigosEnMuerte = new HashSet<>();
@@ -90,7 +113,20 @@ public class Partida {
 
     // --- Flags ---
     private boolean debugFisica = true;
-    private int framesBloqueoPuertas = 0; // cooldown para evitar ping-pong de puertas
+    private int framesBloqueoPuertas = 0; // cooldown (en ticks de simulación) para evitar ping-pong de puertas
+
+    private final Vector2 tmpRender = new Vector2();
+
+    // --- Hojas sueltas (sin atlas): se decodifican en otro hilo y se suben acá, de a poco ---
+    private CargadorTexturas cargadorTexturas;
+
+    // --- Resolución dinámica del mundo (F4 la apaga/prende) ---
+    private ResolucionDinamica resolucion;
+
+    // --- Perfil de render (F3) ---
+    private PerfilRender perfil;
+    private OverlayPerfil overlayPerfil;
+    private final StringBuilder extraPerfil = new StringBuilder(128);
 
     public Partida(Principal game) {
         this.game = game;
@@ -118,19 +154,39 @@ public class Partida {
 
     public void init() {
         batch = new SpriteBatch();
-        shapeRendererMundo = new ShapeRenderer();
+        // Atlas de personajes antes de crear sprites (sin atlas, CacheSprites usa los PNG sueltos)
+        CacheSprites.cargarAtlas(ATLAS_PERSONAJES);
+        cargadorTexturas = new CargadorTexturas();
+        CacheSprites.usarCargador(cargadorTexturas);
+        pincelMundo = new PincelFormas(batch, CacheSprites.region("blanco"));
 
-        // 2) Generar mapa lógico (camino de habitaciones)
-        GeneradorMapa.Configuracion cfg = new GeneradorMapa.Configuracion();
-        cfg.nivel = 1;
-        cfg.semilla = System.currentTimeMillis();
+        world = new World(new Vector2(0, 0), true);
+        fisica = new FisicaMundo(world);
 
-        List<Habitacion> todasLasHabitaciones = Arrays.asList(Habitacion.values());
-        GrafoPuertas grafo = new GrafoPuertas(todasLasHabitaciones, new Random(cfg.semilla));
+        mapaTiled = new TmxMapLoader().load("TMX/mapa.tmx");
+        tilesSalas = new CacheTilesSalas(mapaTiled);
 
-        GeneradorMapa generador = new GeneradorMapa(cfg, grafo);
-        disposicion = generador.generar();
-        this.salasDelPiso = generador.salasDelPiso;
+        resolucion = new ResolucionDinamica();
+        perfil = new PerfilRender();
+        overlayPerfil = new OverlayPerfil();
+        ColisionesDesdeTiled.crearColisiones(mapaTiled, world);
+        BotonesDesdeTiled.crearBotones(mapaTiled, world);
+
+        // 2) Generar mapa lógico (camino de habitaciones).
+        // El primer piso se genera acá; los siguientes se preparan en segundo plano.
+        semillaRun = (game != null && game.getSemillaRun() != null)
+            ? game.getSemillaRun()
+            : System.currentTimeMillis();
+        Gdx.app.log("Partida", "Semilla de la run: " + semillaRun + " (repetir con -Dsemilla=" + semillaRun + ")");
+        nivelActual = 1;
+        // En la carpeta del usuario: local() es el workingDir de run (assets/), y ahí terminaría en el jar
+        cachePisos = new CachePisos(32, PipelinePisos.configuracion(1, semillaRun),
+            Gdx.files.external(".escaperoomguelike/pisos.bin").file().toPath());
+        pipelinePisos = new PipelinePisos(EnemigosDesdeTiled.leerSpawns(mapaTiled), cachePisos);
+        pisoActual = pipelinePisos.generarAhora(nivelActual, semillaDeNivel(nivelActual));
+
+        disposicion = pisoActual.disposicion();
+        this.salasDelPiso = pisoActual.salasDelPiso();
 
         salaActual = disposicion.salaInicio();
         disposicion.descubrir(salaActual);
@@ -142,14 +198,6 @@ public class Partida {
         camaraSala.setFactorLerp(0f);
         camaraSala.centrarEn(salaActual);
 
-        world = new World(new Vector2(0, 0), true);
-        fisica = new FisicaMundo(world);
-
-        mapaTiled = new TmxMapLoader().load("TMX/mapa.tmx");
-        mapaRenderer = new OrthogonalTiledMapRenderer(mapaTiled, 1f);
-        ColisionesDesdeTiled.crearColisiones(mapaTiled, world);
-        BotonesDesdeTiled.crearBotones(mapaTiled, world);
-
         float baseX = salaActual.gridX * salaActual.ancho;
         float baseY = salaActual.gridY * salaActual.alto;
         float px = baseX + salaActual.ancho / 2f;
@@ -169,12 +217,69 @@ public class Partida {
         registrarSpriteDeEntidad(jugador1, new SpritesJugador(jugador1, 48, 48), +6f, -2f);
         registrarSpriteDeEntidad(jugador2, new SpritesJugador(jugador2, 48, 48), +6f, -2f);
 
-        // ✅ Spawn enemigos desde Tiled (solo para la sala actual)
-        EnemigosDesdeTiled.crearEnemigosDesdeMapa(mapaTiled, salaActual, world, gestorEntidades);
+        // ✅ Spawn enemigos (solo para la sala actual, desde la tabla del piso)
+        EnemigosDesdeTiled.crearEnemigos(pisoActual.spawnsDe(salaActual), salaActual, world, gestorEntidades);
         registrarSpritesDeEnemigosVivos();
 
+        crearPuertasDelPiso();
+
+        Vector2 p1 = jugador1.getCuerpoFisico().getPosition();
+        Vector2 p2 = jugador2.getCuerpoFisico().getPosition();
+        camaraSala.centrarEn((p1.x + p2.x) / 2f, (p1.y + p2.y) / 2f);
+
+        controlJugador1 = new ControlJugador(jugador1, Input.Keys.W, Input.Keys.S, Input.Keys.A, Input.Keys.D);
+        controlJugador2 = new ControlJugador(jugador2, Input.Keys.UP, Input.Keys.DOWN, Input.Keys.LEFT, Input.Keys.RIGHT);
+
+        gestorSalas = new GestorSalas(disposicion, fisica, camaraSala, gestorEntidades);
+
+        hud = new HudJuego(disposicion, gestorEntidades.getJugadores());
+        hud.actualizarSalaActual(salaActual);
+        agregarListenerCambioSala(hud);
+
+        fisica.setContactListener(new ContactosPartida(this));
+
+        // Mientras se juega este piso, el siguiente se genera en otro hilo
+        prepararPisoSiguiente();
+    }
+
+    // ==========================
+    // PISOS
+    // ==========================
+
+    private long semillaDeNivel(int nivel) {
+        return GeneradorConReintentos.semillaDeIntento(semillaRun, 1000 + nivel);
+    }
+
+    private void prepararPisoSiguiente() {
+        if (nivelActual >= NIVEL_MAXIMO) return;
+        int nivel = nivelActual + 1;
+        pipelinePisos.prepararSiguiente(nivel, semillaDeNivel(nivel));
+    }
+
+    /**
+     * Sala del jefe despejada (sin enemigos vivos ni muriendo, y sin puzzle trabado):
+     * se pasa al piso siguiente. Si el pipeline todavía lo está generando se espera,
+     * mirando de nuevo el próximo frame, en vez de trabar el render con un get().
+     */
+    private void revisarJefeVencido() {
+        if (salaActual == null || salaActual.tipo != TipoSala.JEFE) return;
+        if (nivelActual >= NIVEL_MAXIMO) return;
+
+        if (!gestorEntidades.getEnemigosDeSala(salaActual).isEmpty()) return;
+        if (!enemigosEnMuerte.isEmpty()) return;
+        if (controlPuzzle != null && controlPuzzle.estaBloqueada(salaActual)) return;
+
+        // Se pide al empezar cada piso; si no hay pedido (no debería pasar), se pide ahora
+        if (!pipelinePisos.haySiguiente()) prepararPisoSiguiente();
+        if (!pipelinePisos.siguienteListo()) return;
+
+        pasarAlSiguientePiso();
+    }
+
+    /** Crea sensores/muros de puertas a partir del plan ya calculado del piso actual. */
+    private void crearPuertasDelPiso() {
         GeneradorSensoresPuertas genPuertas = new GeneradorSensoresPuertas(fisica, disposicion);
-        genPuertas.generar((fixture, origen, destino, dir) -> {
+        genPuertas.generar(pisoActual.puertas(), (fixture, origen, destino, dir) -> {
             Box2dUtils.Aabb bb = Box2dUtils.aabb(fixture);
 
             PuertaVisual visual = new PuertaVisual(bb.minX(), bb.minY(), bb.width(), bb.height());
@@ -182,21 +287,68 @@ public class Partida {
             fixture.setUserData(datos);
             gestorEntidades.registrarPuertaVisual(origen, visual);
         });
+        cuerposPuertas.addAll(genPuertas.getCuerpos());
+    }
 
-        Vector2 p1 = jugador1.getCuerpoFisico().getPosition();
-        Vector2 p2 = jugador2.getCuerpoFisico().getPosition();
-        camaraSala.centrarEn((p1.x + p2.x) / 2f, (p1.y + p2.y) / 2f);
+    /**
+     * Cambia al piso que preparó el pipeline: limpia lo del piso anterior
+     * (enemigos, puertas, ítems) y arma el nuevo. No genera nada acá.
+     */
+    private void pasarAlSiguientePiso() {
+        PipelinePisos.PisoPreparado piso = pipelinePisos.tomarSiguiente();
+        if (piso == null) return;
 
-        controlJugador1 = new ControlJugador(jugador1, Input.Keys.W, Input.Keys.S, Input.Keys.A, Input.Keys.D);
-        controlJugador2 = new ControlJugador(jugador2, Input.Keys.UP, Input.Keys.DOWN, Input.Keys.LEFT, Input.Keys.RIGHT);
+        Habitacion anterior = salaActual;
+
+        // --- limpiar piso anterior ---
+        gestorEntidades.eliminarTodosLosEnemigos();
+        enemigosEnMuerte.clear();
+        limpiarSpritesDeEntidadesMuertas();
+
+        for (Body b : cuerposPuertas) world.destroyBody(b);
+        cuerposPuertas.clear();
+        gestorEntidades.limpiarPiso();
+        puertasPendientes.clear();
+        itemsPendientes.clear();
+
+        // --- nuevo piso ---
+        pisoActual = piso;
+        nivelActual = piso.nivel();
+        disposicion = piso.disposicion();
+        salasDelPiso = piso.salasDelPiso();
+
+        salaActual = disposicion.salaInicio();
+        disposicion.descubrir(salaActual);
+
+        controlPuzzle = new ControlPuzzlePorSala();
+        controlPuzzle.alEntrarASala(salaActual);
+
+        float px = salaActual.gridX * salaActual.ancho + salaActual.ancho / 2f;
+        float py = salaActual.gridY * salaActual.alto + salaActual.alto / 2f;
+        gestorEntidades.crearOReposicionarJugador(1, salaActual, px - 32f, py);
+        gestorEntidades.crearOReposicionarJugador(2, salaActual, px + 32f, py);
+        camaraSala.centrarEn(salaActual);
+
+        crearPuertasDelPiso();
+        EnemigosDesdeTiled.crearEnemigos(pisoActual.spawnsDe(salaActual), salaActual, world, gestorEntidades);
+        registrarSpritesDeEnemigosVivos();
 
         gestorSalas = new GestorSalas(disposicion, fisica, camaraSala, gestorEntidades);
 
-        hud = new HudJuego(disposicion, jugador1);
+        // El HUD arma su layout con la disposición: se recrea con la del piso nuevo
+        if (hud != null) {
+            listenersCambioSala.remove(hud);
+            hud.dispose();
+        }
+        hud = new HudJuego(disposicion, gestorEntidades.getJugadores());
+        hud.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
         hud.actualizarSalaActual(salaActual);
         agregarListenerCambioSala(hud);
 
-        fisica.setContactListener(new ContactosPartida(this));
+        Gdx.app.log("Partida", "Piso " + nivelActual + " (" + piso.calidad() + ")");
+        notificarCambioSala(anterior, salaActual);
+
+        prepararPisoSiguiente();
     }
 
     private void registrarSpriteDeEntidad(Entidad e, SpritesEntidad sprite, float offX, float offY) {
@@ -361,79 +513,151 @@ public class Partida {
 
     public void render(float delta) {
         if (world == null) return;
+        long inicioFrame = System.nanoTime();
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) perfil.alternar();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) resolucion.setActiva(!resolucion.isActiva());
+        perfil.iniciarFrame();
+
+        // Simulación a paso fijo: 0..n ticks según el acumulador de FisicaMundo
+        perfil.empezar(PerfilRender.Fase.SIMULACION);
+        int pasos = fisica.pasosPendientes(delta);
+        for (int i = 0; i < pasos; i++) {
+            tickSimulacion(fisica.getPasoFijo());
+            if (world == null) { // un tick puede terminar la partida
+                perfil.terminar();
+                perfil.terminarFrame();
+                return;
+            }
+        }
+
+        // ✅ sprites / spawns
+        registrarSpritesDeEnemigosVivos();
+
+        // ✅ NUEVO: procesar muertes (destruir bodies al terminar animación)
+        procesarEnemigosEnMuerte();
+
+        revisarJefeVencido();
 
-        gestorEntidades.actualizar(delta, salaActual);
+        limpiarSpritesDeEntidadesMuertas();
+
+        // Hojas que terminaron de decodificarse: subir a GL (con tope por frame)
+        cargadorTexturas.procesarSubidas();
+        perfil.terminar();
+
+        dibujar(delta);
+
+        // Trabajo del frame, sin la espera de vsync (el swap viene después de render):
+        // el delta de Gdx incluye esa espera y con vsync siempre daría justo el presupuesto
+        resolucion.medir(delta, (System.nanoTime() - inicioFrame) / 1e9f);
+
+        perfil.terminarFrame();
+        if (perfil.isActivo()) overlayPerfil.render(perfil, armarExtraPerfil());
+    }
+
+    /** Datos del overlay que no son por fase: lo que dicen los batches y la cola de entidades. */
+    private CharSequence armarExtraPerfil() {
+        extraPerfil.setLength(0);
+        extraPerfil.append("batch mundo: ").append(batch.renderCalls).append(" renderCalls, máx ")
+            .append(batch.maxSpritesInBatch).append(" sprites/flush");
+        if (hud != null) extraPerfil.append("   batch HUD: ").append(hud.getRenderCalls()).append(" renderCalls");
+        extraPerfil.append("\nmundo al ");
+        if (resolucion.isActiva()) extraPerfil.append(Math.round(resolucion.getEscala() * 100f)).append('%');
+        else extraPerfil.append("100% (fija)");
+        extraPerfil.append("\nentidades: ").append(colaRender.getDibujadas()).append(" dibujadas, ")
+            .append(colaRender.getDescartadas()).append(" fuera de sala");
+        return extraPerfil;
+    }
 
-        if (controlJugador1 != null) controlJugador1.actualizar(delta);
-        if (controlJugador2 != null) controlJugador2.actualizar(delta);
+    /**
+     * Un tick de 1/60 s: input, IA, un paso de Box2D y los eventos que dejó.
+     * Todo lo que afecta al juego va acá (y no a ritmo de pantalla) para que sea igual a 60 o 144 Hz.
+     */
+    private void tickSimulacion(float dt) {
+        gestorEntidades.actualizar(dt, salaActual);
 
-        gestorEntidades.actualizarEnemigos(delta, jugador1, jugador2);
+        if (controlJugador1 != null) controlJugador1.actualizar(dt);
+        if (controlJugador2 != null) controlJugador2.actualizar(dt);
 
-        fisica.step(delta);
+        gestorEntidades.actualizarEnemigos(dt, jugador1, jugador2);
+
+        fisica.pasoFijo();
 
         procesarPuertasPendientes();
         procesarItemsPendientes();
         procesarBotonesPendientes();
         procesarDaniosPendientes();
 
-        jugador1.updateEstado(delta);
-        jugador2.updateEstado(delta);
-
-        tickJugador(delta, jugador1);
-        tickJugador(delta, jugador2);
+        jugador1.updateEstado(dt);
+        jugador2.updateEstado(dt);
 
-        // ✅ sprites / spawns
-        registrarSpritesDeEnemigosVivos();
-
-        // ✅ NUEVO: procesar muertes (destruir bodies al terminar animación)
-        procesarEnemigosEnMuerte();
-
-        limpiarSpritesDeEntidadesMuertas();
+        tickJugador(dt, jugador1);
+        tickJugador(dt, jugador2);
 
         if (framesBloqueoPuertas > 0) framesBloqueoPuertas--;
+    }
 
+    /**
+     * Dibujo a ritmo de pantalla. Los sprites van en la posición interpolada entre el último
+     * y el anteúltimo tick (alpha del acumulador), no en la posición cruda del body.
+     */
+    private void dibujar(float delta) {
         Gdx.gl.glClearColor(0.05f, 0.05f, 0.07f, 1f);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
         camaraSala.update(delta);
 
-        if (mapaRenderer != null) {
-            mapaRenderer.setView(camaraSala.getCamara());
-            mapaRenderer.render();
-        }
+        // El mundo va a un buffer con escala según el tiempo de frame (medido en render); el HUD no
+        resolucion.empezarMundo(camaraSala.getViewport());
 
-        shapeRendererMundo.setProjectionMatrix(camaraSala.getCamara().combined);
-        shapeRendererMundo.begin(ShapeRenderer.ShapeType.Filled);
-        gestorEntidades.renderPuertas(shapeRendererMundo, salaActual);
-        shapeRendererMundo.end();
+        // Tiles estáticos: un draw cacheado por capa de la sala visible
+        perfil.empezar(PerfilRender.Fase.TILES);
+        if (tilesSalas != null) tilesSalas.render(camaraSala.getCamara());
+        perfil.terminar();
 
+        // Resto del mundo en UNA sola pasada del batch: puertas -> sprites
         batch.setProjectionMatrix(camaraSala.getCamara().combined);
         batch.begin();
 
-        // Enemigos primero (atrás)
-        for (Enemigo e : gestorEntidades.getEnemigosMundo()) {
-            SpritesEntidad s = spritesPorEntidad.get(e);
-            if (s != null) {
-                s.update(delta);
-                s.render(batch);
-            }
-        }
+        perfil.empezar(PerfilRender.Fase.PUERTAS);
+        gestorEntidades.renderPuertas(pincelMundo, salaActual);
+        // Con el perfil activo se corta el batch acá para que cada fase cuente sus draw calls
+        if (perfil.isActivo()) batch.flush();
+        perfil.terminar();
 
-        // Jugadores después (adelante)
-        SpritesEntidad s1 = spritesPorEntidad.get(jugador1);
-        if (s1 != null) { s1.update(delta); s1.render(batch); }
-        SpritesEntidad s2 = spritesPorEntidad.get(jugador2);
-        if (s2 != null) { s2.update(delta); s2.render(batch); }
+        perfil.empezar(PerfilRender.Fase.SPRITES);
+
+        // Se actualizan TODOS (la muerte tiene que terminar aunque no se vea),
+        // pero solo se dibujan los de la sala, de atrás (más arriba) hacia adelante
+        for (SpritesEntidad s : spritesPorEntidad.values()) {
+            s.update(delta);
+            Body b = s.getEntidad().getCuerpoFisico();
+            if (b != null) s.setPosicionRender(fisica.posicionInterpolada(b, tmpRender));
+        }
+        colaRender.armar(spritesPorEntidad.values(), salaActual);
+        colaRender.dibujar(batch);
 
         batch.end();
+        perfil.terminar();
+
+        perfil.empezar(PerfilRender.Fase.ESCALADO);
+        resolucion.terminarMundo(camaraSala.getViewport(), batch);
+        perfil.terminar();
 
+        perfil.empezar(PerfilRender.Fase.DEBUG_FISICA);
         if (debugFisica) {
             fisica.debugDraw(camaraSala.getCamara());
         }
+        perfil.terminar();
 
+        // HUD a resolución nativa, en toda la ventana
+        HdpiUtils.glViewport(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+
+        perfil.empezar(PerfilRender.Fase.HUD);
         if (hud != null) {
             hud.render();
         }
+        perfil.terminar();
     }
 
     private void procesarPuertasPendientes() {
@@ -465,7 +689,7 @@ public class Partida {
             notificarCambioSala(anterior, salaActual);
             if (controlPuzzle != null) controlPuzzle.alEntrarASala(salaActual);
 
-            EnemigosDesdeTiled.crearEnemigosDesdeMapa(mapaTiled, salaActual, world, gestorEntidades);
+            EnemigosDesdeTiled.crearEnemigos(pisoActual.spawnsDe(salaActual), salaActual, world, gestorEntidades);
             registrarSpritesDeEnemigosVivos();
             limpiarSpritesDeEntidadesMuertas();
         }
@@ -594,15 +818,23 @@ public class Partida {
     public void resize(int width, int height) {
         if (camaraSala != null) camaraSala.getViewport().update(width, height, true);
         if (hud != null) hud.resize(width, height);
+        if (overlayPerfil != null) overlayPerfil.resize(width, height);
     }
 
     public void dispose() {
-        if (mapaRenderer != null) mapaRenderer.dispose();
+        if (tilesSalas != null) tilesSalas.dispose();
         if (mapaTiled != null) mapaTiled.dispose();
         if (batch != null) batch.dispose();
-        if (shapeRendererMundo != null) shapeRendererMundo.dispose();
+        if (pincelMundo != null) pincelMundo.dispose();
+        if (overlayPerfil != null) overlayPerfil.dispose();
+        if (resolucion != null) resolucion.dispose();
         if (fisica != null) fisica.dispose();
         if (hud != null) hud.dispose();
+        if (pipelinePisos != null) pipelinePisos.dispose();
+        if (cachePisos != null) {
+            cachePisos.guardarSiHaceFalta();
+            Gdx.app.log("Partida", cachePisos.toString());
+        }
 
         for (SpritesEntidad s : spritesPorEntidad.values()) {
             if (s != null) s.dispose();
@@ -610,6 +842,10 @@ public class Partida {
         spritesPorEntidad.clear();
         enemigosEnMuerte.clear();
 
+        CacheSprites.usarCargador(null);
+        if (cargadorTexturas != null) cargadorTexturas.dispose();
+        CacheSprites.liberarTodo();
+
         world = null;
     }
 }
@@ -0,0 +1,180 @@
+package juego;
+
+import com.badlogic.gdx.Gdx;
+import entidades.SpawnEnemigo;
+import fisica.GeneradorSensoresPuertas;
+import fisica.PlanPuerta;
+import mapa.CachePisos;
+import mapa.DisposicionMapa;
+import mapa.GeneradorConReintentos;
+import mapa.GeneradorMapa;
+import mapa.Habitacion;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Prepara pisos en segundo plano para que pasar de nivel no genere nada en el hilo de render.
+ *
+ * Un piso preparado incluye todo lo que se puede calcular sin Box2D ni GL:
+ * - la DisposicionMapa (camino + conexiones del piso)
+ * - el plan de puertas (destino o bloqueo de cada puerta)
+ * - la tabla de spawns de enemigos filtrada a las salas del piso
+ *
+ * En el hilo de render solo quedan la creación de cuerpos y sprites.
+ *
+ * Si hay {@link CachePisos}, una semilla ya jugada no se vuelve a generar.
+ */
+public class PipelinePisos {
+
+    public record PisoPreparado(
+        int nivel,
+        long semilla,
+        DisposicionMapa disposicion,
+        List<Habitacion> salasDelPiso,
+        List<PlanPuerta> puertas,
+        Map<Habitacion, List<SpawnEnemigo>> spawns,
+        GeneradorMapa.Calidad calidad
+    ) {
+        public List<SpawnEnemigo> spawnsDe(Habitacion sala) {
+            List<SpawnEnemigo> l = spawns.get(sala);
+            return (l != null) ? l : Collections.emptyList();
+        }
+    }
+
+    /** Spawns de TODO el mapa (se lee una vez del TMX en el hilo de render). Solo lectura. */
+    private final Map<Habitacion, List<SpawnEnemigo>> spawnsDelMapa;
+
+    private final ExecutorService hilo;
+
+    /** Puede ser null (sin cache). */
+    private final CachePisos cache;
+
+    private Future<PisoPreparado> siguiente;
+    private int nivelSiguiente = -1;
+
+    public PipelinePisos(Map<Habitacion, List<SpawnEnemigo>> spawnsDelMapa) {
+        this(spawnsDelMapa, null);
+    }
+
+    public PipelinePisos(Map<Habitacion, List<SpawnEnemigo>> spawnsDelMapa, CachePisos cache) {
+        this.cache = cache;
+        Map<Habitacion, List<SpawnEnemigo>> copia = new EnumMap<>(Habitacion.class);
+        for (var e : spawnsDelMapa.entrySet()) copia.put(e.getKey(), List.copyOf(e.getValue()));
+        this.spawnsDelMapa = Collections.unmodifiableMap(copia);
+
+        // Java 17: sin virtual threads; un hilo daemon de baja prioridad alcanza para un piso a la vez.
+        this.hilo = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "pipeline-pisos");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /** Genera un piso en el hilo que llama (para el primer piso de la run). */
+    public PisoPreparado generarAhora(int nivel, long semilla) {
+        return preparar(nivel, semilla);
+    }
+
+    /** Empieza a preparar el piso 'nivel' en segundo plano (reemplaza un pedido anterior). */
+    public void prepararSiguiente(int nivel, long semilla) {
+        if (siguiente != null) siguiente.cancel(true);
+        nivelSiguiente = nivel;
+        siguiente = hilo.submit(() -> preparar(nivel, semilla));
+
+        // Después del piso, con el hilo libre: lo nuevo de la cache (incluido el primer piso,
+        // que se generó en el hilo de render) va a disco sin que nadie lo espere
+        if (cache != null) hilo.submit(cache::guardarSiHaceFalta);
+    }
+
+    public boolean haySiguiente() {
+        return siguiente != null;
+    }
+
+    public boolean siguienteListo() {
+        return siguiente != null && siguiente.isDone();
+    }
+
+    public int getNivelSiguiente() {
+        return nivelSiguiente;
+    }
+
+    /**
+     * Devuelve el piso pedido con prepararSiguiente. Si todavía no terminó, espera
+     * (no debería pasar: se pide apenas empieza el piso anterior). null si no hay pedido.
+     */
+    public PisoPreparado tomarSiguiente() {
+        if (siguiente == null) return null;
+
+        if (!siguiente.isDone()) {
+            Gdx.app.log("PipelinePisos", "Piso " + nivelSiguiente + " todavía no está listo, esperando...");
+        }
+
+        try {
+            return siguiente.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el piso " + nivelSiguiente, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló la generación del piso " + nivelSiguiente, e.getCause());
+        } finally {
+            siguiente = null;
+            nivelSiguiente = -1;
+        }
+    }
+
+    public void dispose() {
+        if (siguiente != null) siguiente.cancel(true);
+        hilo.shutdownNow();
+    }
+
+    /** Configuración con la que se generan los pisos (la misma que usa la huella de la cache). */
+    public static GeneradorMapa.Configuracion configuracion(int nivel, long semilla) {
+        GeneradorMapa.Configuracion cfg = new GeneradorMapa.Configuracion();
+        cfg.nivel = nivel;
+        cfg.semilla = semilla;
+        return cfg;
+    }
+
+    private PisoPreparado preparar(int nivel, long semilla) {
+        DisposicionMapa disposicion;
+        List<Habitacion> salasDelPiso;
+        GeneradorMapa.Calidad calidad;
+
+        CachePisos.PisoCacheado cacheado = (cache != null) ? cache.buscar(semilla, nivel) : null;
+        if (cacheado != null) {
+            disposicion = cacheado.aDisposicion();
+            salasDelPiso = cacheado.salasDelPiso();
+            calidad = cacheado.calidad();
+            Gdx.app.log("PipelinePisos", "Piso " + nivel + " desde cache " + cache);
+        } else {
+            List<Habitacion> todasLasHabitaciones = Arrays.asList(Habitacion.values());
+            GeneradorConReintentos.Resultado generado =
+                new GeneradorConReintentos(configuracion(nivel, semilla), todasLasHabitaciones).generar();
+
+            disposicion = generado.disposicion();
+            salasDelPiso = generado.generador().salasDelPiso;
+            calidad = generado.generador().getCalidad();
+            if (cache != null) cache.registrar(semilla, nivel, disposicion, salasDelPiso, calidad);
+        }
+
+        List<PlanPuerta> puertas = GeneradorSensoresPuertas.planificar(disposicion);
+
+        Map<Habitacion, List<SpawnEnemigo>> spawns = new EnumMap<>(Habitacion.class);
+        for (Habitacion h : disposicion.getCamino()) {
+            List<SpawnEnemigo> l = spawnsDelMapa.get(h);
+            if (l != null) spawns.put(h, l);
+        }
+
+        return new PisoPreparado(
+            nivel,
+            semilla,
+            disposicion,
+            List.copyOf(salasDelPiso),
+            List.copyOf(puertas),
+            Collections.unmodifiableMap(spawns),
+            calidad
+        );
+    }
+}
@@ -0,0 +1,294 @@
+package mapa;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Cache LRU de pisos generados, por (semilla, nivel), con respaldo opcional en disco.
+ *
+ * - Guarda solo datos inmutables (camino + TablaAdyacencia + calidad) y en cada acierto
+ *   arma una DisposicionMapa NUEVA (la disposición tiene estado de partida: descubiertas).
+ * - Las entradas nuevas se escriben al archivo (si hay) en {@link #guardarSiHaceFalta()},
+ *   así una semilla conocida carga al instante en la próxima sesión. registrar() no toca
+ *   el disco: quien usa la cache decide cuándo guardar (PipelinePisos, con el hilo libre).
+ * - El archivo lleva la huella del catálogo de Habitacion + la versión y las opciones del
+ *   generador que cambian el resultado. Si no coincide, se ignora entero: nunca se sirve un piso viejo.
+ * - Los pisos MEJOR_ESFUERZO no se guardan (dependen del tiempo, no solo de la semilla).
+ *
+ * Thread-safe (métodos synchronized): lo usan el hilo de render y el de PipelinePisos.
+ * La escritura del archivo se hace fuera de ese lock, sobre una foto de las entradas:
+ * un buscar() nunca espera al disco.
+ */
+public class CachePisos {
+
+    /** Subir si cambia el formato del archivo (la lógica del generador va en GeneradorMapa.VERSION). */
+    private static final int FORMATO = 1;
+    private static final int MAGICO = 0x5049534F; // "PISO"
+
+    /** Piso guardado. Inmutable; {@link #aDisposicion()} arma una copia jugable. */
+    public record PisoCacheado(List<Habitacion> camino,
+                               TablaAdyacencia conexiones,
+                               boolean exito,
+                               GeneradorMapa.Calidad calidad) {
+
+        public DisposicionMapa aDisposicion() {
+            DisposicionMapa d = new DisposicionMapa();
+            for (Habitacion h : camino) d.agregarAlCamino(h);
+            d.setConexionesPiso(conexiones);
+            return d;
+        }
+
+        /** Lo que GeneradorMapa deja en salasDelPiso (vacío si fue fallback). */
+        public List<Habitacion> salasDelPiso() {
+            return exito ? camino : List.of();
+        }
+    }
+
+    private record Clave(long semilla, int nivel) {}
+
+    private final int capacidad;
+    private final Path archivo;
+    private final long huella;
+
+    private final LinkedHashMap<Clave, PisoCacheado> entradas;
+
+    private long aciertos;
+    private long fallos;
+
+    /** Hay entradas que el archivo todavía no tiene. */
+    private boolean sucio;
+
+    /** Serializa las escrituras del archivo (distinto del lock de las entradas). */
+    private final Object escritura = new Object();
+
+    /** Solo en memoria. */
+    public CachePisos(int capacidad, GeneradorMapa.Configuracion cfg) {
+        this(capacidad, cfg, null);
+    }
+
+    /**
+     * @param archivo dónde persistir (null = solo memoria). Si existe y la huella coincide, se carga.
+     */
+    public CachePisos(int capacidad, GeneradorMapa.Configuracion cfg, Path archivo) {
+        this.capacidad = Math.max(1, capacidad);
+        this.archivo = archivo;
+        this.huella = huella(cfg);
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Clave, PisoCacheado> eldest) {
+                return size() > CachePisos.this.capacidad;
+            }
+        };
+        cargar();
+    }
+
+    // =========================
+    // Uso
+    // =========================
+
+    /** Piso guardado para (semilla, nivel) o null. Cuenta acierto/fallo. */
+    public synchronized PisoCacheado buscar(long semilla, int nivel) {
+        PisoCacheado p = entradas.get(new Clave(semilla, nivel));
+        if (p != null) aciertos++;
+        else fallos++;
+        return p;
+    }
+
+    /** Guarda un piso recién generado (en memoria; al disco va con guardarSiHaceFalta). */
+    public void registrar(long semilla, int nivel, DisposicionMapa disposicion,
+                          List<Habitacion> salasDelPiso, GeneradorMapa.Calidad calidad) {
+        if (disposicion == null || calidad == GeneradorMapa.Calidad.MEJOR_ESFUERZO) return;
+
+        PisoCacheado p = new PisoCacheado(
+            List.copyOf(disposicion.getCamino()),
+            disposicion.getConexionesPiso(),
+            salasDelPiso != null && !salasDelPiso.isEmpty(),
+            calidad
+        );
+
+        synchronized (this) {
+            entradas.put(new Clave(semilla, nivel), p);
+            sucio = true;
+        }
+    }
+
+    /**
+     * Escribe el archivo si hay entradas nuevas. Toma una foto con el lock y escribe sin él;
+     * puede tardar (disco), así que llamarlo desde un hilo de fondo o al cerrar.
+     */
+    public void guardarSiHaceFalta() {
+        if (archivo == null) return;
+
+        synchronized (escritura) {
+            List<Map.Entry<Clave, PisoCacheado>> foto;
+            synchronized (this) {
+                if (!sucio) return;
+                foto = new ArrayList<>(entradas.size());
+                // Del más viejo al más reciente: al cargar queda el mismo orden LRU
+                for (var e : entradas.entrySet()) foto.add(Map.entry(e.getKey(), e.getValue()));
+                sucio = false;
+            }
+
+            if (!escribir(foto)) {
+                synchronized (this) {
+                    sucio = true; // se reintenta en el próximo guardado
+                }
+            }
+        }
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    public void limpiar() {
+        synchronized (this) {
+            entradas.clear();
+            sucio = true;
+        }
+        guardarSiHaceFalta();
+    }
+
+    @Override
+    public synchronized String toString() {
+        long total = aciertos + fallos;
+        return "CachePisos[" + entradas.size() + "/" + capacidad + " pisos, " +
+            aciertos + " aciertos, " + fallos + " fallos" +
+            (total > 0 ? String.format(" (%.0f%%)", 100.0 * aciertos / total) : "") + "]";
+    }
+
+    // =========================
+    // Huella
+    // =========================
+
+    /**
+     * Huella de 64 bits de todo lo que define un piso además de (semilla, nivel):
+     * la versión del generador, el catálogo completo de habitaciones (ids, tipos, grilla,
+     * puertas) y las opciones del generador que cambian qué camino sale.
+     */
+    public static long huella(GeneradorMapa.Configuracion cfg) {
+        long h = SplitMix64.mezclar(0x243F6A8885A308D3L, FORMATO);
+        h = SplitMix64.mezclar(h, GeneradorMapa.VERSION);
+        for (Habitacion x : Habitacion.values()) {
+            h = SplitMix64.mezclar(h, x.name().hashCode());
+            h = SplitMix64.mezclar(h, x.id);
+            h = SplitMix64.mezclar(h, x.tipo.ordinal());
+            h = SplitMix64.mezclar(h, x.srcX);
+            h = SplitMix64.mezclar(h, x.srcY);
+            h = SplitMix64.mezclar(h, x.ancho);
+            h = SplitMix64.mezclar(h, x.alto);
+            h = SplitMix64.mezclar(h, x.gridX);
+            h = SplitMix64.mezclar(h, x.gridY);
+            for (Direccion d : Direccion.values()) {
+                EspecificacionPuerta p = x.puertas.get(d);
+                if (p == null) {
+                    h = SplitMix64.mezclar(h, -1);
+                    continue;
+                }
+                h = SplitMix64.mezclar(h, d.ordinal());
+                h = SplitMix64.mezclar(h, p.localX);
+                h = SplitMix64.mezclar(h, p.localY);
+            }
+        }
+        if (cfg != null) {
+            h = SplitMix64.mezclar(h, cfg.paralelo ? 1 : 0);
+            h = SplitMix64.mezclar(h, cfg.intentosEspeculativos);
+        }
+        return h;
+    }
+
+    // =========================
+    // Disco
+    // =========================
+
+    private void cargar() {
+        if (archivo == null || !Files.isRegularFile(archivo)) return;
+
+        Habitacion[] salas = Habitacion.values();
+        GeneradorMapa.Calidad[] calidades = GeneradorMapa.Calidad.values();
+        int celdas = salas.length * Direccion.values().length;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(archivo)))) {
+            if (in.readInt() != MAGICO || in.readInt() != FORMATO) {
+                RegistroMapa.log("CachePisos", "Archivo de cache con otro formato, se ignora");
+                return;
+            }
+            if (in.readLong() != huella) {
+                RegistroMapa.log("CachePisos", "Cambió el catálogo de habitaciones o el generador: cache descartada");
+                return;
+            }
+
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                long semilla = in.readLong();
+                int nivel = in.readInt();
+                GeneradorMapa.Calidad calidad = calidades[in.readUnsignedByte()];
+                boolean exito = in.readBoolean();
+
+                int largo = in.readUnsignedByte();
+                Habitacion[] camino = new Habitacion[largo];
+                for (int j = 0; j < largo; j++) camino[j] = salas[in.readUnsignedByte()];
+
+                short[] tabla = new short[celdas];
+                for (int j = 0; j < celdas; j++) tabla[j] = in.readShort();
+
+                entradas.put(new Clave(semilla, nivel),
+                    new PisoCacheado(List.of(camino), TablaAdyacencia.desdeArreglo(tabla), exito, calidad));
+            }
+            RegistroMapa.log("CachePisos", "Cargados " + entradas.size() + " pisos de " + archivo);
+        } catch (IOException | RuntimeException e) {
+            // Archivo corrupto o de otra versión: arrancamos vacíos
+            entradas.clear();
+            RegistroMapa.log("CachePisos", "No se pudo leer la cache (" + e.getMessage() + "), se ignora");
+        }
+    }
+
+    /** Escribe la foto a un temporal y lo mueve encima (un corte a mitad no deja el archivo roto). */
+    private boolean escribir(List<Map.Entry<Clave, PisoCacheado>> foto) {
+        try {
+            Path dir = archivo.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            Path tmp = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGICO);
+                out.writeInt(FORMATO);
+                out.writeLong(huella);
+                out.writeInt(foto.size());
+
+                for (var e : foto) {
+                    PisoCacheado p = e.getValue();
+                    out.writeLong(e.getKey().semilla());
+                    out.writeInt(e.getKey().nivel());
+                    out.writeByte(p.calidad().ordinal());
+                    out.writeBoolean(p.exito());
+                    out.writeByte(p.camino().size());
+                    for (Habitacion h : p.camino()) out.writeByte(h.ordinal());
+                    for (short v : p.conexiones().aArreglo()) out.writeShort(v);
+                }
+            }
+
+            try {
+                Files.move(tmp, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, archivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            RegistroMapa.log("CachePisos", "No se pudo guardar la cache: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package mapa;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Conjunto de habitaciones guardado como máscara de bits (un bit por ordinal de Habitacion).
+ *
+ * - agregar / contiene / quitar son O(1) y no alocan ni hashean.
+ * - Se recorre saltando directo a los bits prendidos (numberOfTrailingZeros).
+ * - Esta clase es de solo lectura; {@link Mutable} agrega las operaciones de escritura.
+ *
+ * Un ConjuntoSalas devuelto por un getter puede ser la vista ({@link Mutable#soloLectura()})
+ * de un Mutable que sigue cambiando: si necesitás una foto fija, usá {@link #copia()}.
+ * La vista no es un Mutable, así que castearla no sirve para escribir.
+ */
+public class ConjuntoSalas implements Iterable<Habitacion> {
+
+    private static final Habitacion[] SALAS = Habitacion.values();
+
+    static {
+        if (SALAS.length > Long.SIZE) {
+            throw new IllegalStateException(
+                "ConjuntoSalas soporta hasta " + Long.SIZE + " habitaciones (hay " + SALAS.length + ")");
+        }
+    }
+
+    public static final ConjuntoSalas VACIO = new ConjuntoSalas(0L);
+
+    protected long bits;
+
+    ConjuntoSalas(long bits) {
+        this.bits = bits;
+    }
+
+    // =========================
+    // Fábricas
+    // =========================
+
+    public static ConjuntoSalas de(Habitacion... salas) {
+        long b = 0L;
+        for (Habitacion h : salas) if (h != null) b |= bit(h);
+        return new ConjuntoSalas(b);
+    }
+
+    public static ConjuntoSalas de(Collection<Habitacion> salas) {
+        long b = 0L;
+        for (Habitacion h : salas) if (h != null) b |= bit(h);
+        return new ConjuntoSalas(b);
+    }
+
+    public static Mutable mutable() {
+        return new Mutable(0L);
+    }
+
+    // =========================
+    // Lectura
+    // =========================
+
+    // Todas las lecturas pasan por bits(): la vista de solo lectura lo redefine
+
+    public boolean contiene(Habitacion h) {
+        return h != null && (bits() & bit(h)) != 0L;
+    }
+
+    public int tamanio() {
+        return Long.bitCount(bits());
+    }
+
+    public boolean estaVacio() {
+        return bits() == 0L;
+    }
+
+    /** Máscara cruda (bit i = Habitacion.values()[i]). Útil para comparar o serializar. */
+    public long bits() {
+        return bits;
+    }
+
+    /** Foto inmutable del estado actual. */
+    public ConjuntoSalas copia() {
+        return new ConjuntoSalas(bits());
+    }
+
+    /**
+     * Primer ordinal prendido en o después de 'desde', o -1 si no hay más.
+     * Permite recorrer sin crear un Iterator:
+     * for (int i = s.siguiente(0); i >= 0; i = s.siguiente(i + 1)) ...
+     */
+    public int siguiente(int desde) {
+        if (desde >= Long.SIZE) return -1;
+        long resto = bits() & (-1L << desde);
+        return resto == 0L ? -1 : Long.numberOfTrailingZeros(resto);
+    }
+
+    public static Habitacion sala(int ordinal) {
+        return SALAS[ordinal];
+    }
+
+    @Override
+    public Iterator<Habitacion> iterator() {
+        return new Iterator<>() {
+            private long restantes = bits();
+
+            @Override
+            public boolean hasNext() {
+                return restantes != 0L;
+            }
+
+            @Override
+            public Habitacion next() {
+                if (restantes == 0L) throw new NoSuchElementException();
+                int i = Long.numberOfTrailingZeros(restantes);
+                restantes &= restantes - 1;
+                return SALAS[i];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ConjuntoSalas c)) return false;
+        return bits() == c.bits();
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (Habitacion h : this) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(h.name());
+        }
+        return sb.append(']').toString();
+    }
+
+    static long bit(Habitacion h) {
+        return 1L << h.ordinal();
+    }
+
+    // =========================
+    // Versión mutable
+    // =========================
+
+    public static final class Mutable extends ConjuntoSalas {
+
+        private final ConjuntoSalas vista = new Vista(this);
+
+        Mutable(long bits) {
+            super(bits);
+        }
+
+        /** Vista de solo lectura que sigue los cambios (no aloca; no se puede castear a Mutable). */
+        public ConjuntoSalas soloLectura() {
+            return vista;
+        }
+
+        /** Devuelve true si la sala no estaba. */
+        public boolean agregar(Habitacion h) {
+            if (h == null) return false;
+            long antes = bits;
+            bits |= bit(h);
+            return bits != antes;
+        }
+
+        /** Devuelve true si la sala estaba. */
+        public boolean quitar(Habitacion h) {
+            if (h == null) return false;
+            long antes = bits;
+            bits &= ~bit(h);
+            return bits != antes;
+        }
+
+        public void agregarTodas(ConjuntoSalas otro) {
+            if (otro != null) bits |= otro.bits();
+        }
+
+        public void limpiar() {
+            bits = 0L;
+        }
+    }
+
+    /** Lee los bits del Mutable de origen cada vez: ve sus cambios pero no los puede hacer. */
+    private static final class Vista extends ConjuntoSalas {
+
+        private final Mutable origen;
+
+        Vista(Mutable origen) {
+            super(0L);
+            this.origen = origen;
+        }
+
+        @Override
+        public long bits() {
+            return origen.bits;
+        }
+    }
+}
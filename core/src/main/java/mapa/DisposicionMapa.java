@@ -7,16 +7,19 @@ public class DisposicionMapa {
     /** El camino de habitaciones que el generador decidió para este nivel (EN ORDEN) */
     private final List<Habitacion> camino = new ArrayList<>();
 
+    /** Mismas salas que el camino, como bitmask (esSalaActiva en O(1)) */
+    private final ConjuntoSalas.Mutable activas = ConjuntoSalas.mutable();
+
     /** Habitaciones visitadas (útil para el minimapa, HUD) */
-    private final Set<Habitacion> descubiertas = new HashSet<>();
+    private final ConjuntoSalas.Mutable descubiertas = ConjuntoSalas.mutable();
 
-    /** Conexiones REALES del piso (solo puertas válidas) */
-    private final Map<Habitacion, EnumMap<Direccion, Habitacion>> conexionesPiso = new HashMap<>();
+    /** Conexiones REALES del piso (solo puertas válidas). Tabla inmutable; se reemplaza entera. */
+    private TablaAdyacencia conexionesPiso = TablaAdyacencia.VACIA;
 
     /** Agrega una sala al camino (la run actual) */
     public void agregarAlCamino(Habitacion h) {
         if (h == null) return;
-        if (!camino.contains(h)) camino.add(h);
+        if (activas.agregar(h)) camino.add(h);
     }
 
     /** Devuelve el camino completo (salas activas de esta run) */
@@ -30,22 +33,27 @@ public class DisposicionMapa {
     }
 
     public boolean esSalaActiva(Habitacion h) {
-        return camino.contains(h);
+        return activas.contiene(h);
+    }
+
+    /** Salas activas como conjunto (vista de solo lectura, no aloca) */
+    public ConjuntoSalas getConjuntoActivas() {
+        return activas.soloLectura();
     }
 
     /** Marca una sala como descubierta */
     public void descubrir(Habitacion h) {
-        if (h != null) descubiertas.add(h);
+        descubiertas.agregar(h);
     }
 
     /** Devuelve true si la sala ya se visitó */
     public boolean estaDescubierta(Habitacion h) {
-        return descubiertas.contains(h);
+        return descubiertas.contiene(h);
     }
 
-    /** Devuelve un set de todas las salas descubiertas */
-    public Set<Habitacion> getDescubiertas() {
-        return descubiertas;
+    /** Devuelve las salas descubiertas (vista de solo lectura, no aloca) */
+    public ConjuntoSalas getDescubiertas() {
+        return descubiertas.soloLectura();
     }
 
     /** Sala de inicio: la primera del camino, si existe; si no, INICIO_1 */
@@ -58,25 +66,47 @@ public class DisposicionMapa {
     // Conexiones del piso
     // =========================
 
-    /** Vincula una puerta válida del piso */
+    /** Reemplaza todas las conexiones del piso (lo usa el generador al terminar) */
+    public void setConexionesPiso(TablaAdyacencia tabla) {
+        conexionesPiso = (tabla != null) ? tabla : TablaAdyacencia.VACIA;
+    }
+
+    /** Tabla inmutable de conexiones del piso (se puede compartir entre hilos) */
+    public TablaAdyacencia getConexionesPiso() {
+        return conexionesPiso;
+    }
+
+    /**
+     * Vincula una puerta válida del piso.
+     * Copia la tabla en cada llamada: para armar un piso entero conviene
+     * un TablaAdyacencia.Constructor + setConexionesPiso.
+     */
     public void vincularEnPiso(Habitacion origen, Direccion dir, Habitacion destino) {
         if (origen == null || dir == null || destino == null) return;
-        conexionesPiso
-            .computeIfAbsent(origen, k -> new EnumMap<>(Direccion.class))
-            .put(dir, destino);
+        TablaAdyacencia.Constructor c = new TablaAdyacencia.Constructor();
+        for (Habitacion h : Habitacion.values())
+            for (Direccion d : Direccion.values())
+                c.vincular(h, d, conexionesPiso.destino(h, d));
+        conexionesPiso = c.vincular(origen, dir, destino).congelar();
     }
 
     /** Destino por una dirección, SOLO si la puerta es válida en este piso */
     public Habitacion getDestinoEnPiso(Habitacion origen, Direccion dir) {
-        EnumMap<Direccion, Habitacion> m = conexionesPiso.get(origen);
-        if (m == null) return null;
-        return m.get(dir);
+        return conexionesPiso.destino(origen, dir);
     }
 
-    /** Conexiones válidas de la sala en este piso */
+    /** Salas vecinas en este piso (lista precalculada, no aloca) */
+    public List<Habitacion> getVecinasEnPiso(Habitacion origen) {
+        return conexionesPiso.vecinas(origen);
+    }
+
+    /** Conexiones válidas de la sala en este piso (copia nueva en cada llamada) */
     public EnumMap<Direccion, Habitacion> getConexionesEnPiso(Habitacion origen) {
-        EnumMap<Direccion, Habitacion> m = conexionesPiso.get(origen);
-        if (m == null) return new EnumMap<>(Direccion.class);
+        EnumMap<Direccion, Habitacion> m = new EnumMap<>(Direccion.class);
+        for (Direccion d : Direccion.values()) {
+            Habitacion dest = conexionesPiso.destino(origen, d);
+            if (dest != null) m.put(d, dest);
+        }
         return m;
     }
 
@@ -84,13 +114,11 @@ public class DisposicionMapa {
     public void imprimirConexionesPiso() {
         System.out.println("== CONEXIONES DEL PISO ==");
         for (Habitacion h : camino) {
-            EnumMap<Direccion, Habitacion> m = conexionesPiso.get(h);
             StringBuilder sb = new StringBuilder();
             sb.append(" ").append(h.nombreVisible).append(" -> ");
-            if (m != null) {
-                for (var e : m.entrySet()) {
-                    sb.append("[").append(e.getKey()).append("→").append(e.getValue().nombreVisible).append("] ");
-                }
+            for (Direccion d : Direccion.values()) {
+                Habitacion dest = conexionesPiso.destino(h, d);
+                if (dest != null) sb.append("[").append(d).append("→").append(dest.nombreVisible).append("] ");
             }
             System.out.println(sb);
         }
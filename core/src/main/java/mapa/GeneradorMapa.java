@@ -1,7 +1,8 @@
 package mapa;
 
-import com.badlogic.gdx.Gdx;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Genera un camino de habitaciones usando el GrafoPuertas y restricciones por nivel.
@@ -9,9 +10,67 @@ import java.util.*;
  */
 public class GeneradorMapa {
 
+    /**
+     * Versión de la lógica que decide el camino (NivelCfg, orden de vecinas, selector...).
+     * Subirla cuando un cambio haga que la misma semilla dé otro piso: entra en la huella
+     * de {@link CachePisos} y descarta los pisos guardados con la lógica vieja.
+     */
+    public static final int VERSION = 1;
+
     public static class Configuracion {
         public int nivel = 1;
         public long semilla = System.currentTimeMillis();
+
+        /**
+         * Poda ramas que ya no pueden terminar en un piso válido.
+         * Con false se recorre el árbol completo (útil para comparar resultados).
+         */
+        public boolean podar = true;
+
+        /**
+         * Reparte la búsqueda en tareas ForkJoin (una por rama de los primeros niveles).
+         * El piso resultante depende solo de la semilla, no de cuántos hilos haya.
+         */
+        public boolean paralelo = false;
+
+        /** Hilos del pool en modo paralelo (0 = pool común, todos los núcleos). */
+        public int hilos = 0;
+
+        /**
+         * Tope de tiempo de búsqueda en milisegundos (0 = sin tope).
+         * Al agotarse se devuelve el mejor camino válido encontrado hasta ese momento;
+         * ver {@link GeneradorMapa#getCalidad()}.
+         */
+        public long presupuestoMs = 0;
+
+        /**
+         * Si el piso sale en FALLBACK, cuántos grafos alternativos (sub-semillas) se corren en
+         * carrera para reemplazarlo. 0 = comportamiento viejo. Ver {@link GeneradorConReintentos}.
+         */
+        public int intentosEspeculativos = 4;
+
+        /** Copia con otra semilla (mismo nivel y mismas opciones). */
+        public Configuracion copiaConSemilla(long semilla) {
+            Configuracion c = new Configuracion();
+            c.nivel = nivel;
+            c.semilla = semilla;
+            c.podar = podar;
+            c.paralelo = paralelo;
+            c.hilos = hilos;
+            c.presupuestoMs = presupuestoMs;
+            c.intentosEspeculativos = intentosEspeculativos;
+            return c;
+        }
+    }
+
+    /** Qué tan bueno es el piso que devolvió la última llamada a generar(). */
+    public enum Calidad {
+        /** Se recorrió todo el árbol (o se alcanzó maxSalas): el camino es de largo máximo. */
+        OPTIMO,
+        /** Se agotó el presupuesto: es el mejor camino válido visto, puede haber uno más largo. */
+        MEJOR_ESFUERZO,
+        /** No se encontró ningún camino válido: INICIO -> JEFE directo. */
+        FALLBACK
     }
 
     private static class NivelCfg {
@@ -41,45 +100,119 @@ public class GeneradorMapa {
 
     public List<Habitacion> salasDelPiso = new ArrayList<>();
 
+    /** Niveles del árbol (debajo del inicio) que se expanden antes de repartir en tareas. */
+    private static final int NIVELES_CORTE = 4;
+
+    /** Cada cuántos nodos se mira el reloj (potencia de 2 - 1, para usar como máscara). */
+    private static final long MASCARA_RELOJ = 1023;
+
+    // --- Datos de la búsqueda (se recalculan en cada generar; solo lectura durante el DFS) ---
+
+    /** Orden de recorrido de vecinas por sala (índice = ordinal), mezclado una vez por semilla. */
+    private Habitacion[][] ordenVecinas;
+
+    /** Distancia mínima (en salas) desde cada sala hasta un JEFE. MAX_VALUE si no llega. */
+    private int[] distanciaAJefe;
+
+    /** Cantidad de salas de cada tipo (índice = TipoSala.ordinal). */
+    private final int[] salasPorTipo = new int[TipoSala.values().length];
+
+    /** Instante (System.nanoTime) en que se corta la búsqueda; 0 = sin tope. */
+    private long limiteNanos;
+
+    /** Lo prende el primer recorrido que ve el tope vencido; volatile porque lo leen todas las tareas. */
+    private volatile boolean tiempoAgotado;
+
+    /** Pedido de corte desde otro hilo (ver cancelar()). */
+    private volatile boolean cancelado;
+
+    // --- Estadísticas de la última generación ---
+    private long nodosExpandidos;
+    private long nanosGeneracion;
+    private Calidad calidad;
+
     public GeneradorMapa(Configuracion cfg, GrafoPuertas grafo) {
         this.cfg = cfg;
         this.grafo = grafo;
         this.rng = new Random(cfg.semilla);
     }
 
+    /** Nodos del árbol de búsqueda expandidos en la última llamada a generar(). */
+    public long getNodosExpandidos() {
+        return nodosExpandidos;
+    }
+
+    /** Tiempo de la última búsqueda, en milisegundos. */
+    public double getMilisGeneracion() {
+        return nanosGeneracion / 1_000_000.0;
+    }
+
+    /** Calidad del último piso generado (null si todavía no se generó ninguno). */
+    public Calidad getCalidad() {
+        return calidad;
+    }
+
+    /**
+     * Pide que la búsqueda en curso termine lo antes posible (se puede llamar desde otro hilo).
+     * generar() vuelve con lo que tenga; ese resultado no se debe usar.
+     */
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    public boolean fueCancelado() {
+        return cancelado;
+    }
+
+    /** true si el último piso es de largo máximo (no quedó recortado por el presupuesto). */
+    public boolean esOptimo() {
+        return calidad == Calidad.OPTIMO;
+    }
+
     public DisposicionMapa generar() {
         NivelCfg nivelCfg = elegirCfgNivel(cfg.nivel);
 
         Habitacion inicio = Habitacion.INICIO_1;
 
-        List<List<Habitacion>> candidatos = new ArrayList<>();
-        List<Habitacion> path = new ArrayList<>();
-        Set<Habitacion> visitados = new HashSet<>();
-
-        path.add(inicio);
-        visitados.add(inicio);
+        long t0 = System.nanoTime();
+        limiteNanos = (cfg.presupuestoMs > 0) ? t0 + cfg.presupuestoMs * 1_000_000L : 0L;
+        tiempoAgotado = false;
+        prepararBusqueda();
+
+        Busqueda busqueda = cfg.paralelo
+            ? buscarEnParalelo(inicio, nivelCfg)
+            : buscarSecuencial(inicio, nivelCfg);
+        SelectorCamino selector = busqueda.selector;
+        nodosExpandidos = busqueda.nodos;
+
+        if (!selector.hayCamino()) {
+            calidad = Calidad.FALLBACK;
+        } else if (!tiempoAgotado || selector.largo() >= nivelCfg.maxSalas) {
+            calidad = Calidad.OPTIMO;
+        } else {
+            calidad = Calidad.MEJOR_ESFUERZO;
+        }
 
-        dfsTodos(inicio, nivelCfg, path, visitados, candidatos);
+        nanosGeneracion = System.nanoTime() - t0;
+        RegistroMapa.log("GeneradorMapa",
+            "Búsqueda nivel " + cfg.nivel + (cfg.podar ? " (con poda)" : " (exhaustiva)") +
+                (cfg.paralelo ? " [paralela]" : "") + " -> " + calidad +
+                ": " + nodosExpandidos + " nodos, " + String.format("%.2f", getMilisGeneracion()) + " ms, " +
+                selector.validos() + " caminos válidos, " + selector.empates() + " de largo máximo");
 
         List<Habitacion> mejor;
 
-        if (candidatos.isEmpty()) {
+        if (!selector.hayCamino()) {
             Habitacion jefeFallback = elegirJefeAleatorio();
             mejor = new ArrayList<>();
             mejor.add(inicio);
             mejor.add(jefeFallback);
 
-            Gdx.app.log("GeneradorMapa",
+            RegistroMapa.log("GeneradorMapa",
                 "No se pudo generar un camino completo, usando fallback simple.");
             imprimirCamino("CAMINO FALLBACK", mejor);
         } else {
-            int maxLen = 0;
-            for (List<Habitacion> c : candidatos) maxLen = Math.max(maxLen, c.size());
-
-            List<List<Habitacion>> masLargos = new ArrayList<>();
-            for (List<Habitacion> c : candidatos) if (c.size() == maxLen) masLargos.add(c);
-
-            mejor = masLargos.get(rng.nextInt(masLargos.size()));
+            mejor = selector.resultado();
             imprimirCamino("CAMINO GENERADO", mejor);
 
             salasDelPiso.clear();
@@ -94,7 +227,7 @@ public class GeneradorMapa {
         construirConexionesDelPiso(disposicion, mejor);
 
         // Debug opcional
-        disposicion.imprimirConexionesPiso();
+        if (RegistroMapa.volcados()) disposicion.imprimirConexionesPiso();
 
         return disposicion;
     }
@@ -102,6 +235,8 @@ public class GeneradorMapa {
     private void construirConexionesDelPiso(DisposicionMapa disposicion, List<Habitacion> mejor) {
         if (mejor.size() < 2) return;
 
+        TablaAdyacencia.Constructor tabla = new TablaAdyacencia.Constructor();
+
         for (int i = 0; i < mejor.size() - 1; i++) {
             Habitacion a = mejor.get(i);
             Habitacion b = mejor.get(i + 1);
@@ -110,15 +245,17 @@ public class GeneradorMapa {
             if (dir == null) {
                 // Si pasa esto, tu grafo te dio vecinas() pero no podemos recuperar la dirección.
                 // Es 100% un bug de GrafoPuertas (vecinas sin mantener dirección).
-                Gdx.app.log("GeneradorMapa",
+                RegistroMapa.log("GeneradorMapa",
                     "ADVERTENCIA: No se encontró dirección entre " + a.nombreVisible + " y " + b.nombreVisible);
                 continue;
             }
 
             // Guardar A->B y B->A siempre
-            disposicion.vincularEnPiso(a, dir, b);
-            disposicion.vincularEnPiso(b, dir.opuesta(), a);
+            tabla.vincular(a, dir, b);
+            tabla.vincular(b, dir.opuesta(), a);
         }
+
+        disposicion.setConexionesPiso(tabla.congelar());
     }
 
     /**
@@ -134,35 +271,278 @@ public class GeneradorMapa {
         return null;
     }
 
-    private void dfsTodos(Habitacion actual,
-                          NivelCfg nivelCfg,
-                          List<Habitacion> path,
-                          Set<Habitacion> visitados,
-                          List<List<Habitacion>> candidatos) {
+    /**
+     * Precalcula lo que la búsqueda consulta en cada nodo:
+     * - el orden de vecinas de cada sala (mezclado UNA vez con el rng, así el orden
+     *   no depende de cuántos nodos se poden y podar/no podar da el mismo piso)
+     * - la distancia mínima a un JEFE (BFS inverso desde los jefes)
+     * - cuántas salas de cada tipo hay disponibles
+     */
+    private void prepararBusqueda() {
+        Habitacion[] todas = Habitacion.values();
+
+        ordenVecinas = new Habitacion[todas.length][];
+        for (Habitacion h : todas) {
+            List<Habitacion> vecinos = new ArrayList<>(grafo.vecinas(h));
+            Collections.shuffle(vecinos, rng);
+            ordenVecinas[h.ordinal()] = vecinos.toArray(new Habitacion[0]);
+        }
+
+        distanciaAJefe = new int[todas.length];
+        Arrays.fill(distanciaAJefe, Integer.MAX_VALUE);
+        ArrayDeque<Habitacion> cola = new ArrayDeque<>();
+        for (Habitacion h : todas) {
+            if (h.tipo == TipoSala.JEFE) {
+                distanciaAJefe[h.ordinal()] = 0;
+                cola.add(h);
+            }
+        }
+        // Las conexiones del grafo son simétricas: vecinas(x) sirve como arista inversa.
+        while (!cola.isEmpty()) {
+            Habitacion h = cola.poll();
+            int d = distanciaAJefe[h.ordinal()] + 1;
+            for (Habitacion v : ordenVecinas[h.ordinal()]) {
+                if (v.tipo == TipoSala.JEFE) continue; // no se puede pasar a través de un jefe
+                if (distanciaAJefe[v.ordinal()] <= d) continue;
+                distanciaAJefe[v.ordinal()] = d;
+                cola.add(v);
+            }
+        }
 
-        int n = path.size();
-        if (n > nivelCfg.maxSalas) return;
+        Arrays.fill(salasPorTipo, 0);
+        for (Habitacion h : todas) salasPorTipo[h.tipo.ordinal()]++;
+    }
+
+    private Busqueda buscarSecuencial(Habitacion inicio, NivelCfg nivelCfg) {
+        Busqueda b = new Busqueda(nivelCfg, rng);
+        b.entrar(inicio);
+        b.dfs(inicio);
+        return b;
+    }
 
-        if (actual.tipo == TipoSala.JEFE) {
-            if (nivelCfg.terminaEnJefe && cumpleRestricciones(path, nivelCfg)) {
-                candidatos.add(new ArrayList<>(path));
+    /**
+     * Expande los primeros NIVELES_CORTE niveles en este hilo, junta los prefijos que quedan
+     * en ese corte y los resuelve como tareas ForkJoin.
+     *
+     * Determinismo: el corte se arma SIN poda y en el orden de ordenVecinas, así que la lista
+     * de prefijos depende solo de la semilla. Los prefijos que la búsqueda secuencial habría
+     * podado quedan en la lista como null (mantienen su índice) y no se recorren.
+     * Cada tarea usa su propio Random derivado de (semilla, rango de prefijos) y los
+     * resultados se combinan siempre en el mismo árbol (izquierda + derecha), sin importar
+     * qué hilo termine primero.
+     * Con presupuestoMs > 0 y el tope vencido, el resultado sí depende de cuánto llegó a
+     * recorrer cada tarea.
+     */
+    private Busqueda buscarEnParalelo(Habitacion inicio, NivelCfg nivelCfg) {
+        Busqueda divisor = new Busqueda(nivelCfg, rng);
+        List<Habitacion[]> prefijos = new ArrayList<>();
+        divisor.entrar(inicio);
+        divisor.recolectarPrefijos(inicio, 1 + NIVELES_CORTE, true, prefijos);
+
+        ForkJoinPool pool = (cfg.hilos > 0) ? new ForkJoinPool(cfg.hilos) : ForkJoinPool.commonPool();
+        try {
+            Busqueda r = pool.invoke(new TareaBusqueda(nivelCfg, prefijos, 0, prefijos.size()));
+            r.nodos += divisor.nodos;
+            return r;
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+        }
+    }
+
+    /** Semilla derivada para el nodo [lo, hi) del árbol de tareas (finalizador de SplitMix64). */
+    private static long mezclar(long semilla, int lo, int hi) {
+        return SplitMix64.finalizar(semilla ^ (lo * SplitMix64.GAMMA) ^ (hi * 0xC2B2AE3D27D4EB4FL));
+    }
+
+    /** Resuelve los prefijos [lo, hi) partiendo el rango a la mitad hasta quedar con uno. */
+    private final class TareaBusqueda extends RecursiveTask<Busqueda> {
+        private final NivelCfg nivelCfg;
+        private final List<Habitacion[]> prefijos;
+        private final int lo, hi;
+
+        TareaBusqueda(NivelCfg nivelCfg, List<Habitacion[]> prefijos, int lo, int hi) {
+            this.nivelCfg = nivelCfg;
+            this.prefijos = prefijos;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Busqueda compute() {
+            Random rngNodo = new Random(mezclar(cfg.semilla, lo, hi));
+
+            if (hi - lo <= 1) {
+                Busqueda b = new Busqueda(nivelCfg, rngNodo);
+                Habitacion[] prefijo = (lo < hi) ? prefijos.get(lo) : null;
+                if (prefijo != null && !b.relojVencido()) {
+                    for (Habitacion h : prefijo) b.entrar(h);
+                    b.dfs(prefijo[prefijo.length - 1]);
+                }
+                return b;
             }
-            return;
+
+            int mid = (lo + hi) >>> 1;
+            TareaBusqueda izq = new TareaBusqueda(nivelCfg, prefijos, lo, mid);
+            TareaBusqueda der = new TareaBusqueda(nivelCfg, prefijos, mid, hi);
+            izq.fork();
+            Busqueda rDer = der.compute();
+            Busqueda rIzq = izq.join();
+
+            rIzq.combinar(rDer, rngNodo);
+            return rIzq;
         }
+    }
+
+    /**
+     * Estado mutable de UN recorrido DFS (camino actual, visitados, contadores, selector).
+     * En modo paralelo cada tarea tiene el suyo; lo compartido (ordenVecinas, distanciaAJefe)
+     * es de solo lectura.
+     */
+    private final class Busqueda {
+        final NivelCfg nivelCfg;
+        final SelectorCamino selector;
 
-        List<Habitacion> vecinos = new ArrayList<>(grafo.vecinas(actual));
-        Collections.shuffle(vecinos, rng);
+        final List<Habitacion> path = new ArrayList<>();
+        final ConjuntoSalas.Mutable visitados = ConjuntoSalas.mutable();
 
-        for (Habitacion sig : vecinos) {
-            if (visitados.contains(sig)) continue;
+        /** Salas de cada tipo que todavía no están en el camino. */
+        final int[] libresPorTipo = salasPorTipo.clone();
 
-            path.add(sig);
-            visitados.add(sig);
+        int cAcertijo, cCombate, cBotin;
+        long nodos;
 
-            dfsTodos(sig, nivelCfg, path, visitados, candidatos);
+        Busqueda(NivelCfg nivelCfg, Random rngSelector) {
+            this.nivelCfg = nivelCfg;
+            this.selector = new SelectorCamino(rngSelector, nivelCfg.maxSalas);
+        }
+
+        void entrar(Habitacion h) {
+            path.add(h);
+            visitados.agregar(h);
+            libresPorTipo[h.tipo.ordinal()]--;
+            switch (h.tipo) {
+                case ACERTIJO -> cAcertijo++;
+                case COMBATE -> cCombate++;
+                case BOTIN -> cBotin++;
+                default -> {}
+            }
+        }
+
+        void salir() {
+            Habitacion h = path.remove(path.size() - 1);
+            visitados.quitar(h);
+            libresPorTipo[h.tipo.ordinal()]++;
+            switch (h.tipo) {
+                case ACERTIJO -> cAcertijo--;
+                case COMBATE -> cCombate--;
+                case BOTIN -> cBotin--;
+                default -> {}
+            }
+        }
+
+        /**
+         * true si desde 'actual' (no jefe) ya es imposible cerrar un camino válido:
+         * - el jefe más cercano queda fuera del máximo de salas, o
+         * - no entran (o no quedan) las salas que faltan para las restricciones del nivel.
+         * Son cotas optimistas: nunca descartan un candidato real.
+         */
+        boolean podable(Habitacion actual) {
+            if (!nivelCfg.terminaEnJefe) return false;
+
+            int n = path.size();
+            int dist = distanciaAJefe[actual.ordinal()];
+            if (dist == Integer.MAX_VALUE || n + dist > nivelCfg.maxSalas) return true;
+
+            int faltanAcertijos = Math.max(0, nivelCfg.minAcertijos - cAcertijo);
+            int faltanCombates = Math.max(0, nivelCfg.minCombates - cCombate);
+            int faltaBotin = (nivelCfg.requiereBotin && cBotin == 0) ? 1 : 0;
+
+            if (faltanAcertijos > libresPorTipo[TipoSala.ACERTIJO.ordinal()]) return true;
+            if (faltanCombates > libresPorTipo[TipoSala.COMBATE.ordinal()]) return true;
+            if (faltaBotin > libresPorTipo[TipoSala.BOTIN.ordinal()]) return true;
+
+            // salas que faltan + el jefe final tienen que entrar en lo que queda del presupuesto
+            return n + faltanAcertijos + faltanCombates + faltaBotin + 1 > nivelCfg.maxSalas;
+        }
+
+        /**
+         * Cancelación o reloj vencido. El reloj se mira cada MASCARA_RELOJ + 1 nodos;
+         * una vez vencido, todos los recorridos cortan.
+         */
+        boolean debeCortar() {
+            if (tiempoAgotado || cancelado) return true;
+            if (limiteNanos == 0L || (nodos & MASCARA_RELOJ) != 0) return false;
+            return relojVencido();
+        }
+
+        /**
+         * Mira el reloj ya, sin esperar al múltiplo de nodos. Lo usa cada tarea al arrancar:
+         * en modo paralelo casi ninguna llega a MASCARA_RELOJ nodos propios.
+         */
+        boolean relojVencido() {
+            if (tiempoAgotado || cancelado) return true;
+            if (limiteNanos != 0L && System.nanoTime() - limiteNanos >= 0) {
+                tiempoAgotado = true;
+                return true;
+            }
+            return false;
+        }
+
+        void dfs(Habitacion actual) {
+            nodos++;
+            if (debeCortar()) return;
+
+            int n = path.size();
+            if (n > nivelCfg.maxSalas) return;
+
+            if (actual.tipo == TipoSala.JEFE) {
+                if (nivelCfg.terminaEnJefe && cumpleRestricciones(path, nivelCfg)) {
+                    selector.ofrecer(path);
+                }
+                return;
+            }
+
+            if (cfg.podar && podable(actual)) return;
+
+            for (Habitacion sig : ordenVecinas[actual.ordinal()]) {
+                if (visitados.contiene(sig)) continue;
+
+                entrar(sig);
+                dfs(sig);
+                salir();
+            }
+        }
+
+        /**
+         * Igual que dfs, pero corta en 'corte' salas y guarda el prefijo en vez de seguir.
+         * Expande todo (la lista no depende de podar), pero 'vivo' sigue lo que haría dfs:
+         * solo cuenta los nodos que dfs habría visitado, y debajo de uno podado guarda null.
+         * El nodo del corte no se cuenta acá: lo cuenta la tarea que lo recorre.
+         */
+        void recolectarPrefijos(Habitacion actual, int corte, boolean vivo, List<Habitacion[]> out) {
+            if (path.size() >= corte || actual.tipo == TipoSala.JEFE) {
+                out.add(vivo ? path.toArray(new Habitacion[0]) : null);
+                return;
+            }
+
+            if (vivo) {
+                nodos++;
+                if (path.size() > nivelCfg.maxSalas) vivo = false;
+                else if (cfg.podar && podable(actual)) vivo = false;
+            }
+
+            for (Habitacion sig : ordenVecinas[actual.ordinal()]) {
+                if (visitados.contiene(sig)) continue;
+
+                entrar(sig);
+                recolectarPrefijos(sig, corte, vivo, out);
+                salir();
+            }
+        }
 
-            path.remove(path.size() - 1);
-            visitados.remove(sig);
+        void combinar(Busqueda otra, Random rngMezcla) {
+            selector.combinar(otra.selector, rngMezcla);
+            nodos += otra.nodos;
         }
     }
 
@@ -212,6 +592,7 @@ public class GeneradorMapa {
     }
 
     private void imprimirCamino(String titulo, List<Habitacion> camino) {
+        if (!RegistroMapa.volcados()) return;
         System.out.println("== " + titulo + " ==");
         for (Habitacion h : camino) {
             System.out.println(" - " + h.nombreVisible +
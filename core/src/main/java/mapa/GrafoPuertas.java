@@ -15,45 +15,72 @@ import java.util.*;
  */
 public class GrafoPuertas {
 
+    /** Si está en true, cada grafo construido se imprime por consola. */
+    public static boolean imprimirGrafo = false;
+
     private final List<Habitacion> habitaciones;
     private final Random rng;
 
     /**
-     * Para cada habitación origen, guarda a qué habitación lleva cada
+     * Para cada habitación origen, a qué habitación lleva cada
      * dirección concreta (NORTE, SUR, ESTE, OESTE).
      *
-     * conexiones.get(origen).get(dir)  -> destino (o null si no hay)
+     * conexiones.destino(origen, dir)  -> destino (o null si no hay)
+     *
+     * Se congela al terminar de construir: es inmutable y se puede compartir entre hilos.
      */
-    private final Map<Habitacion, EnumMap<Direccion, Habitacion>> conexiones =
-        new EnumMap<>(Habitacion.class);
+    private final TablaAdyacencia conexiones;
 
     public GrafoPuertas(List<Habitacion> habitaciones, Random rng) {
         this.habitaciones = new ArrayList<>(habitaciones);
         this.rng = rng;
-        construirConexiones();
+        this.conexiones = construirConexiones();
     }
 
     /**
      * Construye las conexiones lógicas:
      * para cada puerta (origen, dir), elige una sala destino
      * que tenga la puerta opuesta.
+     *
+     * Las salas con puerta libre se indexan por dirección (un {@link LibresPorDireccion}
+     * por Direccion), así que elegir destino no recorre todo el catálogo:
+     * O(log n) por puerta en vez de O(n).
+     *
+     * El candidato elegido es EXACTAMENTE el mismo que con el recorrido lineal
+     * (mismo orden de candidatos y mismo consumo del rng): misma semilla, mismo grafo.
      */
-    private void construirConexiones() {
+    private TablaAdyacencia construirConexiones() {
+
+        TablaAdyacencia.Constructor tabla = new TablaAdyacencia.Constructor();
 
-        for (Habitacion h : habitaciones)
-            conexiones.put(h, new EnumMap<>(Direccion.class));
+        // índice de cada sala dentro de 'habitaciones' (por ordinal)
+        int[] indice = new int[Habitacion.values().length];
+        Arrays.fill(indice, -1);
+        for (int i = 0; i < habitaciones.size(); i++)
+            indice[habitaciones.get(i).ordinal()] = i;
+
+        Direccion[] dirs = Direccion.values();
+        LibresPorDireccion[] libres = new LibresPorDireccion[dirs.length];
+        for (Direccion d : dirs) libres[d.ordinal()] = new LibresPorDireccion(habitaciones.size());
 
         record Door(Habitacion h, Direccion d) {}
 
         List<Door> puertasLibres = new ArrayList<>();
 
         // solo las puertas declaradas en el enum
-        for (Habitacion h : habitaciones)
-            for (Direccion d : h.puertas.keySet())
+        for (int i = 0; i < habitaciones.size(); i++) {
+            Habitacion h = habitaciones.get(i);
+            for (Direccion d : h.puertas.keySet()) {
                 puertasLibres.add(new Door(h, d));
+                libres[d.ordinal()].agregar(i);
+            }
+        }
 
         Collections.shuffle(puertasLibres, rng);
 
+        // salas que NO pueden ser destino (a lo sumo el origen + sus 4 conexiones)
+        int[] excluidas = new int[dirs.length + 1];
+
         for (Door door : puertasLibres) {
 
             Habitacion origen = door.h;
@@ -61,77 +88,141 @@ public class GrafoPuertas {
             Direccion opuesta = dir.opuesta();
 
             // ya emparejada
-            if (conexiones.get(origen).containsKey(dir))
+            if (tabla.tieneConexion(origen, dir))
                 continue;
 
-            // buscar candidatos que:
-            // - no sean el origen
-            // - tengan la puerta opuesta
-            // - no tengan esa puerta ya emparejada
-            // - NO estén ya conectados al origen (evita duplicados)
-            List<Habitacion> candidatos = new ArrayList<>();
-
-            for (Habitacion dest : habitaciones) {
-                if (dest == origen) continue;
-                if (!dest.puertas.containsKey(opuesta)) continue;
-                if (conexiones.get(dest).containsKey(opuesta)) continue;
-
-                // evitar que origen y destino tengan ya otra conexión
-                // NO queremos:
-                // Inicio.NORTE -> A
-                // Inicio.ESTE  -> A
-                if (conexiones.get(origen).containsValue(dest)) continue;
-
-                candidatos.add(dest);
+            // candidatos: salas con la puerta opuesta libre, menos
+            // - el origen
+            // - las que ya están conectadas al origen (evita duplicados)
+            //   NO queremos:
+            //   Inicio.NORTE -> A
+            //   Inicio.ESTE  -> A
+            LibresPorDireccion cand = libres[opuesta.ordinal()];
+            int nEx = 0;
+            int iOrigen = indice[origen.ordinal()];
+            if (cand.contiene(iOrigen)) excluidas[nEx++] = iOrigen;
+            for (Direccion d : dirs) {
+                Habitacion ya = tabla.destino(origen, d);
+                if (ya == null) continue;
+                int j = indice[ya.ordinal()];
+                if (cand.contiene(j)) excluidas[nEx++] = j;
             }
 
-            if (candidatos.isEmpty())
+            int total = cand.tamanio() - nEx;
+            if (total <= 0)
                 continue;
 
-            Habitacion destino = candidatos.get(rng.nextInt(candidatos.size()));
+            // k-ésimo candidato en orden de 'habitaciones', salteando las excluidas
+            int k = rng.nextInt(total);
+            Arrays.sort(excluidas, 0, nEx);
+            for (int e = 0; e < nEx; e++) {
+                if (cand.rango(excluidas[e]) <= k) k++;
+            }
+            int iDestino = cand.kesimo(k);
+            Habitacion destino = habitaciones.get(iDestino);
 
-            conexiones.get(origen).put(dir, destino);
-            conexiones.get(destino).put(opuesta, origen);
+            tabla.vincular(origen, dir, destino);
+            tabla.vincular(destino, opuesta, origen);
+            libres[dir.ordinal()].quitar(iOrigen);
+            cand.quitar(iDestino);
         }
 
-        // log
-        System.out.println("== GRAFO DE PUERTAS ==");
-        for (var e : conexiones.entrySet()) {
-            System.out.print(" " + e.getKey().nombreVisible + " ->");
-            for (var d : e.getValue().entrySet())
-                System.out.print(" [" + d.getKey() + "→" + d.getValue().nombreVisible + "]");
-            System.out.println();
+        TablaAdyacencia congelada = tabla.congelar();
+        if (imprimirGrafo) {
+            System.out.println("== GRAFO DE PUERTAS ==");
+            System.out.print(congelada);
         }
+        return congelada;
     }
 
+    /** Vuelca el grafo por consola (se hace solo si está {@link #imprimirGrafo}, o a mano). */
+    public void imprimir() {
+        System.out.println("== GRAFO DE PUERTAS ==");
+        System.out.print(conexiones);
+    }
 
+    /** Tabla inmutable de conexiones (compartible entre hilos). */
+    public TablaAdyacencia getAdyacencia() {
+        return conexiones;
+    }
 
+    /**
+     * Salas con una puerta libre en cierta dirección, como índices de 'habitaciones'.
+     * Árbol de Fenwick de 0/1: agregar, quitar, rango y k-ésimo en O(log n),
+     * y el recorrido "en orden" queda implícito (no hay que reordenar nada al quitar).
+     */
+    private static final class LibresPorDireccion {
+        private final int[] arbol;
+        private final boolean[] presente;
+        private final int potencia;
+        private int tamanio;
+
+        LibresPorDireccion(int n) {
+            arbol = new int[n + 1];
+            presente = new boolean[n];
+            potencia = (n == 0) ? 0 : Integer.highestOneBit(n);
+        }
 
+        boolean contiene(int i) {
+            return i >= 0 && presente[i];
+        }
+
+        int tamanio() {
+            return tamanio;
+        }
+
+        void agregar(int i) {
+            if (presente[i]) return;
+            presente[i] = true;
+            tamanio++;
+            for (int x = i + 1; x < arbol.length; x += x & -x) arbol[x]++;
+        }
+
+        void quitar(int i) {
+            if (!presente[i]) return;
+            presente[i] = false;
+            tamanio--;
+            for (int x = i + 1; x < arbol.length; x += x & -x) arbol[x]--;
+        }
+
+        /** Cuántos presentes hay con índice menor a i. */
+        int rango(int i) {
+            int r = 0;
+            for (int x = i; x > 0; x -= x & -x) r += arbol[x];
+            return r;
+        }
+
+        /** Índice del k-ésimo presente (k desde 0). */
+        int kesimo(int k) {
+            int pos = 0;
+            for (int paso = potencia; paso > 0; paso >>= 1) {
+                int sig = pos + paso;
+                if (sig < arbol.length && arbol[sig] <= k) {
+                    pos = sig;
+                    k -= arbol[sig];
+                }
+            }
+            return pos; // pos es 1-based del anterior => índice 0-based del buscado
+        }
+    }
 
     /**
      * Devuelve la habitación destino a la que lleva la puerta `dir`
      * desde la habitación `origen`, o null si no hay conexión.
      */
     public Habitacion destinoDe(Habitacion origen, Direccion dir) {
-        EnumMap<Direccion, Habitacion> mapaDirs = conexiones.get(origen);
-        if (mapaDirs == null) return null;
-        return mapaDirs.get(dir);
+        return conexiones.destino(origen, dir);
     }
 
     /**
      * Vecinas lógicas de una habitación (unión de todos los destinos
      * de sus direcciones). Útil si necesitás “salas adyacentes” en
      * el sentido lógico del grafo.
+     *
+     * La lista está precalculada y es inmutable: no aloca por llamada.
      */
     public List<Habitacion> vecinas(Habitacion h) {
-        EnumMap<Direccion, Habitacion> mapaDirs = conexiones.get(h);
-        if (mapaDirs == null || mapaDirs.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // Evitar duplicados
-        LinkedHashSet<Habitacion> set = new LinkedHashSet<>(mapaDirs.values());
-        return new ArrayList<>(set);
+        return conexiones.vecinas(h);
     }
 
     /**
@@ -11,77 +11,204 @@ import java.util.*;
  *
  * Esto hace que el minimapa represente EXACTAMENTE lo establecido por el generador (piso),
  * sin perder tu GrafoPuertas random (que sigue existiendo, solo no se usa para el HUD).
+ *
+ * Representación (todo primitivo, se arma una vez por piso):
+ * - posición de cada sala en arreglos x/y por ordinal
+ * - ocupación de la grilla en una tabla hash abierta con clave long (x, y empaquetados)
+ * - un pasillo por arista, ya calculado, como arreglo plano de coordenadas [x0, y0, x1, y1, ...]
+ *
+ * Parte incremental: {@link #sincronizar(ConjuntoSalas)} agrega las salas recién descubiertas
+ * y las aristas que quedan visibles. Las consultas por frame (salasVisibles / aristasVisibles /
+ * pasilloX / pasilloY) no alocan.
  */
 public final class LayoutMinimapa {
 
-    /** Posición asignada para cada sala activa. */
-    private final Map<Habitacion, PosMini> posPorSala = new HashMap<>();
+    private static final Habitacion[] SALAS = Habitacion.values();
+    private static final Direccion[] DIRS = Direccion.values();
+    private static final int N_DIRS = DIRS.length;
+
+    // --- posiciones (por ordinal) ---
+    private final int[] posX = new int[SALAS.length];
+    private final int[] posY = new int[SALAS.length];
+    private final ConjuntoSalas.Mutable colocadas = ConjuntoSalas.mutable();
+
+    /** Ocupación inversa: qué sala ocupa una celda. */
+    private final Celdas celdas = new Celdas(SALAS.length);
 
-    /** Ocupación inversa: qué sala ocupa una posición. */
-    private final Map<PosMini, Habitacion> salaPorPos = new HashMap<>();
+    // --- aristas (pasillos) ---
+    private int cantidadAristas;
+    private int[] aristaA = new int[8];
+    private int[] aristaB = new int[8];
+    private int[][] pasillo = new int[8][];
 
-    /** Pasillos: celdas intermedias entre dos salas. */
-    private final Map<EdgeKey, List<PosMini>> pasillos = new HashMap<>();
+    /** Arista que sale de [sala * 4 + dir], o -1. Las dos puntas apuntan a la misma arista. */
+    private final int[] aristaPorPuerta = new int[SALAS.length * N_DIRS];
+
+    // --- parte visible (incremental) ---
+    private final ConjuntoSalas.Mutable visibles = ConjuntoSalas.mutable();
+    private final int[] salasVisibles = new int[SALAS.length];
+    private int cantidadSalasVisibles;
+    private int[] aristasVisibles = new int[8];
+    private int cantidadAristasVisibles;
+    private final boolean[] aristaVisible = new boolean[SALAS.length * N_DIRS];
+    private int version;
 
     /** Bounds del layout (para centrar/normalizar en HUD). */
     private int minX, maxX, minY, maxY;
 
-    private LayoutMinimapa() {}
+    // --- vistas "viejas" (se arman una sola vez, a pedido) ---
+    private Map<Habitacion, PosMini> posicionesCache;
+    private List<PosMini>[] pasillosCache;
+
+    private LayoutMinimapa() {
+        Arrays.fill(aristaPorPuerta, -1);
+    }
 
     public static LayoutMinimapa construir(DisposicionMapa disposicion) {
         LayoutMinimapa out = new LayoutMinimapa();
 
-        Set<Habitacion> activas = new HashSet<>(disposicion.getSalasActivas());
+        ConjuntoSalas activas = disposicion.getConjuntoActivas();
+        TablaAdyacencia conex = disposicion.getConexionesPiso();
         Habitacion inicio = disposicion.salaInicio();
 
-        ArrayDeque<Habitacion> q = new ArrayDeque<>();
-        out.colocar(inicio, new PosMini(0, 0));
-        q.add(inicio);
+        // BFS con una cola de ordinales (cada sala entra una sola vez)
+        int[] cola = new int[SALAS.length];
+        int cabeza = 0, fin = 0;
 
-        while (!q.isEmpty()) {
-            Habitacion h = q.poll();
-            PosMini ph = out.posPorSala.get(h);
-            if (ph == null) continue;
+        out.colocar(inicio.ordinal(), 0, 0);
+        cola[fin++] = inicio.ordinal();
 
-            // 🔥 Fuente de verdad: conexiones del piso
-            EnumMap<Direccion, Habitacion> conex = disposicion.getConexionesEnPiso(h);
+        while (cabeza < fin) {
+            int h = cola[cabeza++];
+            int hx = out.posX[h], hy = out.posY[h];
 
-            for (var e : conex.entrySet()) {
-                Direccion dir = e.getKey();
-                Habitacion dest = e.getValue();
+            // 🔥 Fuente de verdad: conexiones del piso
+            for (Direccion dir : DIRS) {
+                Habitacion dest = conex.destino(SALAS[h], dir);
 
                 if (dest == null) continue;
-                if (!activas.contains(dest)) continue;
+                if (!activas.contiene(dest)) continue;
+
+                int d = dest.ordinal();
+                if (!out.colocadas.contiene(dest)) {
+                    // Posición deseada (adyacente según dir); si está ocupada, seguir en esa dirección
+                    int x = hx + dir.dx, y = hy + dir.dy;
+                    while (out.celdas.ocupada(x, y)) {
+                        x += dir.dx;
+                        y += dir.dy;
+                    }
+                    out.colocar(d, x, y);
+                    cola[fin++] = d;
+                }
+
+                // Pasillo entre h y dest (si no estaba ya desde la otra punta)
+                out.agregarArista(h, dir, d, dir.opuesta());
+            }
+        }
+
+        out.calcularBounds();
+        return out;
+    }
 
-                // Posición deseada (adyacente según dir)
-                PosMini pd = new PosMini(ph.x() + dx(dir), ph.y() + dy(dir));
+    // =========================
+    // Parte incremental
+    // =========================
+
+    /**
+     * Hook de descubrimiento: agrega a lo visible las salas de 'descubiertas' que todavía
+     * no estaban, y las aristas con las dos puntas visibles. No aloca (solo crece si hace falta).
+     * @return true si cambió algo (útil para invalidar lo que se haya dibujado antes).
+     */
+    public boolean sincronizar(ConjuntoSalas descubiertas) {
+        boolean cambio = false;
+        for (int i = descubiertas.siguiente(0); i >= 0; i = descubiertas.siguiente(i + 1)) {
+            cambio |= descubrir(ConjuntoSalas.sala(i));
+        }
+        return cambio;
+    }
 
-                if (!out.posPorSala.containsKey(dest)) {
-                    PosMini libre = out.buscarLibreEnDireccion(pd, dir);
-                    out.colocar(dest, libre);
+    /** Marca una sala como visible en el minimapa. */
+    public boolean descubrir(Habitacion h) {
+        if (h == null || !colocadas.contiene(h) || !visibles.agregar(h)) return false;
 
-                    // Pasillo entre ph y libre (por si se tuvo que correr)
-                    out.pasillos.put(new EdgeKey(h, dest), out.celdasIntermedias(ph, libre));
+        int s = h.ordinal();
+        salasVisibles[cantidadSalasVisibles++] = s;
 
-                    q.add(dest);
-                } else {
-                    // Ya colocado: asegurar pasillo si falta
-                    PosMini ya = out.posPorSala.get(dest);
-                    EdgeKey k = new EdgeKey(h, dest);
-                    out.pasillos.putIfAbsent(k, out.celdasIntermedias(ph, ya));
-                }
+        for (int d = 0; d < N_DIRS; d++) {
+            int e = aristaPorPuerta[s * N_DIRS + d];
+            if (e < 0 || aristaVisible[e]) continue;
+            int otra = (aristaA[e] == s) ? aristaB[e] : aristaA[e];
+            if (!visibles.contiene(SALAS[otra])) continue;
+
+            aristaVisible[e] = true;
+            if (cantidadAristasVisibles == aristasVisibles.length) {
+                aristasVisibles = Arrays.copyOf(aristasVisibles, aristasVisibles.length * 2);
             }
+            aristasVisibles[cantidadAristasVisibles++] = e;
         }
 
-        out.calcularBounds();
-        return out;
+        version++;
+        return true;
+    }
+
+    /** Sube cada vez que cambia lo visible. */
+    public int version() {
+        return version;
     }
 
-    public Map<Habitacion, PosMini> posiciones() { return posPorSala; }
+    public int cantidadSalasVisibles() { return cantidadSalasVisibles; }
 
-    /** Celdas del pasillo entre a y b (sin incluir endpoints). */
-    public List<PosMini> pasilloEntre(Habitacion a, Habitacion b) {
-        return pasillos.getOrDefault(new EdgeKey(a, b), List.of());
+    public Habitacion salaVisible(int i) { return SALAS[salasVisibles[i]]; }
+
+    public int cantidadAristasVisibles() { return cantidadAristasVisibles; }
+
+    /** Índice de arista (para pasilloX / pasilloY) de la i-ésima arista visible. */
+    public int aristaVisible(int i) { return aristasVisibles[i]; }
+
+    // =========================
+    // Consultas (sin alocar)
+    // =========================
+
+    public boolean estaColocada(Habitacion h) {
+        return colocadas.contiene(h);
+    }
+
+    public boolean estaVisible(Habitacion h) {
+        return visibles.contiene(h);
+    }
+
+    public int x(Habitacion h) { return posX[h.ordinal()]; }
+
+    public int y(Habitacion h) { return posY[h.ordinal()]; }
+
+    public int cantidadAristas() { return cantidadAristas; }
+
+    public Habitacion aristaA(int e) { return SALAS[aristaA[e]]; }
+
+    public Habitacion aristaB(int e) { return SALAS[aristaB[e]]; }
+
+    /** Cantidad de celdas del pasillo de la arista e (sin incluir las salas). */
+    public int largoPasillo(int e) { return pasillo[e].length / 2; }
+
+    public int pasilloX(int e, int k) { return pasillo[e][2 * k]; }
+
+    public int pasilloY(int e, int k) { return pasillo[e][2 * k + 1]; }
+
+    /** Sala que ocupa la celda (x, y), o null. */
+    public Habitacion salaEn(int x, int y) {
+        int s = celdas.sala(x, y);
+        return (s < 0) ? null : SALAS[s];
+    }
+
+    /** Arista entre a y b, o -1. */
+    public int aristaEntre(Habitacion a, Habitacion b) {
+        if (a == null || b == null) return -1;
+        int s = a.ordinal(), t = b.ordinal();
+        for (int d = 0; d < N_DIRS; d++) {
+            int e = aristaPorPuerta[s * N_DIRS + d];
+            if (e >= 0 && ((aristaA[e] == s && aristaB[e] == t) || (aristaA[e] == t && aristaB[e] == s))) return e;
+        }
+        return -1;
     }
 
     public int minX() { return minX; }
@@ -89,43 +216,87 @@ public final class LayoutMinimapa {
     public int minY() { return minY; }
     public int maxY() { return maxY; }
 
-    // ----------------- internos -----------------
+    // =========================
+    // API con PosMini (se arma una vez, después no aloca)
+    // =========================
 
-    private void colocar(Habitacion h, PosMini p) {
-        posPorSala.put(h, p);
-        salaPorPos.put(p, h);
+    public Map<Habitacion, PosMini> posiciones() {
+        if (posicionesCache == null) {
+            Map<Habitacion, PosMini> m = new EnumMap<>(Habitacion.class);
+            for (Habitacion h : colocadas) m.put(h, new PosMini(posX[h.ordinal()], posY[h.ordinal()]));
+            posicionesCache = Collections.unmodifiableMap(m);
+        }
+        return posicionesCache;
     }
 
-    private PosMini buscarLibreEnDireccion(PosMini start, Direccion dir) {
-        PosMini p = start;
-        while (salaPorPos.containsKey(p)) {
-            p = new PosMini(p.x() + dx(dir), p.y() + dy(dir));
+    /** Celdas del pasillo entre a y b (sin incluir endpoints). */
+    @SuppressWarnings("unchecked")
+    public List<PosMini> pasilloEntre(Habitacion a, Habitacion b) {
+        int e = aristaEntre(a, b);
+        if (e < 0) return List.of();
+
+        if (pasillosCache == null) {
+            pasillosCache = (List<PosMini>[]) new List[cantidadAristas];
+            for (int i = 0; i < cantidadAristas; i++) {
+                PosMini[] celdasPasillo = new PosMini[largoPasillo(i)];
+                for (int k = 0; k < celdasPasillo.length; k++) celdasPasillo[k] = new PosMini(pasilloX(i, k), pasilloY(i, k));
+                pasillosCache[i] = List.of(celdasPasillo);
+            }
         }
-        return p;
+        return pasillosCache[e];
     }
 
-    private List<PosMini> celdasIntermedias(PosMini a, PosMini b) {
-        // Nos movemos en “L”: primero X, luego Y.
-        // En la práctica casi siempre será recto, pero esto evita huecos raros.
-        List<PosMini> out = new ArrayList<>();
+    // ----------------- internos -----------------
+
+    private void colocar(int s, int x, int y) {
+        posX[s] = x;
+        posY[s] = y;
+        colocadas.agregar(SALAS[s]);
+        celdas.poner(x, y, s);
+    }
 
-        int x = a.x();
-        int y = a.y();
+    private void agregarArista(int a, Direccion dirA, int b, Direccion dirB) {
+        if (aristaPorPuerta[a * N_DIRS + dirA.ordinal()] >= 0) return;
+        if (aristaPorPuerta[b * N_DIRS + dirB.ordinal()] >= 0) return;
 
-        while (x != b.x()) {
-            x += Integer.compare(b.x(), x);
-            if (x == b.x() && y == b.y()) break;
-            out.add(new PosMini(x, y));
+        if (cantidadAristas == aristaA.length) {
+            int n = aristaA.length * 2;
+            aristaA = Arrays.copyOf(aristaA, n);
+            aristaB = Arrays.copyOf(aristaB, n);
+            pasillo = Arrays.copyOf(pasillo, n);
         }
 
-        while (y != b.y()) {
-            y += Integer.compare(b.y(), y);
-            if (x == b.x() && y == b.y()) break;
-            out.add(new PosMini(x, y));
-        }
+        int e = cantidadAristas++;
+        aristaA[e] = a;
+        aristaB[e] = b;
+        pasillo[e] = celdasIntermedias(posX[a], posY[a], posX[b], posY[b]);
+        aristaPorPuerta[a * N_DIRS + dirA.ordinal()] = e;
+        aristaPorPuerta[b * N_DIRS + dirB.ordinal()] = e;
+    }
 
-        // Seguridad: no incluir endpoint
-        if (!out.isEmpty() && out.get(out.size() - 1).equals(b)) out.remove(out.size() - 1);
+    /**
+     * Celdas entre (ax, ay) y (bx, by), sin los extremos, como [x0, y0, x1, y1, ...].
+     * Nos movemos en “L”: primero X, luego Y.
+     * En la práctica casi siempre será recto, pero esto evita huecos raros.
+     */
+    private static int[] celdasIntermedias(int ax, int ay, int bx, int by) {
+        int n = Math.max(0, Math.abs(bx - ax) + Math.abs(by - ay) - 1);
+        int[] out = new int[2 * n];
+        int k = 0;
+
+        int x = ax, y = ay;
+        while (x != bx) {
+            x += Integer.compare(bx, x);
+            if (x == bx && y == by) break;
+            out[k++] = x;
+            out[k++] = y;
+        }
+        while (y != by) {
+            y += Integer.compare(by, y);
+            if (x == bx && y == by) break;
+            out[k++] = x;
+            out[k++] = y;
+        }
         return out;
     }
 
@@ -133,54 +304,65 @@ public final class LayoutMinimapa {
         minX = Integer.MAX_VALUE; maxX = Integer.MIN_VALUE;
         minY = Integer.MAX_VALUE; maxY = Integer.MIN_VALUE;
 
-        for (PosMini p : posPorSala.values()) {
-            minX = Math.min(minX, p.x());
-            maxX = Math.max(maxX, p.x());
-            minY = Math.min(minY, p.y());
-            maxY = Math.max(maxY, p.y());
+        for (int s = colocadas.siguiente(0); s >= 0; s = colocadas.siguiente(s + 1)) {
+            minX = Math.min(minX, posX[s]);
+            maxX = Math.max(maxX, posX[s]);
+            minY = Math.min(minY, posY[s]);
+            maxY = Math.max(maxY, posY[s]);
         }
 
-        if (posPorSala.isEmpty()) {
+        if (colocadas.estaVacio()) {
             minX = maxX = minY = maxY = 0;
         }
     }
 
-    private static int dx(Direccion d) {
-        return switch (d) {
-            case ESTE -> 1;
-            case OESTE -> -1;
-            default -> 0;
-        };
-    }
+    /**
+     * Celda ocupada -> ordinal de sala. Hash abierto (sondeo lineal) con clave long:
+     * x en los 32 bits altos, y en los bajos. Tamaño fijo: a lo sumo una celda por sala.
+     */
+    private static final class Celdas {
+        private static final long VACIA = Long.MIN_VALUE;
+
+        private final long[] claves;
+        private final int[] salas;
+        private final int mascara;
+
+        Celdas(int capacidad) {
+            int n = Integer.highestOneBit(Math.max(2, capacidad) * 2 - 1) << 1;
+            claves = new long[n];
+            salas = new int[n];
+            mascara = n - 1;
+            Arrays.fill(claves, VACIA);
+        }
 
-    private static int dy(Direccion d) {
-        return switch (d) {
-            case NORTE -> 1;
-            case SUR -> -1;
-            default -> 0;
-        };
-    }
+        static long clave(int x, int y) {
+            return ((long) x << 32) | (y & 0xFFFFFFFFL);
+        }
 
-    /** Clave no dirigida (A-B == B-A) para no duplicar pasillos. */
-    private static final class EdgeKey {
-        private final int a;
-        private final int b;
+        private int indice(long k) {
+            long h = k * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
 
-        EdgeKey(Habitacion h1, Habitacion h2) {
-            int i1 = h1.id;
-            int i2 = h2.id;
-            this.a = Math.min(i1, i2);
-            this.b = Math.max(i1, i2);
+        boolean ocupada(int x, int y) {
+            return sala(x, y) >= 0;
         }
 
-        @Override public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof EdgeKey k)) return false;
-            return a == k.a && b == k.b;
+        /** Ordinal de la sala en (x, y), o -1. */
+        int sala(int x, int y) {
+            long k = clave(x, y);
+            for (int i = indice(k); ; i = (i + 1) & mascara) {
+                if (claves[i] == VACIA) return -1;
+                if (claves[i] == k) return salas[i];
+            }
         }
 
-        @Override public int hashCode() {
-            return 31 * a + b;
+        void poner(int x, int y, int sala) {
+            long k = clave(x, y);
+            int i = indice(k);
+            while (claves[i] != VACIA && claves[i] != k) i = (i + 1) & mascara;
+            claves[i] = k;
+            salas[i] = sala;
         }
     }
 }
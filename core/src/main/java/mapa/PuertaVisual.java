@@ -1,7 +1,7 @@
 package mapa;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import graficos.PincelFormas;
 
 public class PuertaVisual {
     public final float x;      // esquina inferior izquierda
@@ -16,8 +16,8 @@ public class PuertaVisual {
         this.height = height;
     }
 
-    public void render(ShapeRenderer sr) {
-        sr.setColor(Color.BLACK);
-        sr.rect(x, y, width, height);
+    public void render(PincelFormas pincel) {
+        pincel.setColor(Color.BLACK);
+        pincel.rect(x, y, width, height);
     }
 }
@@ -0,0 +1,30 @@
+package mapa;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Logs del paquete mapa sin depender de que exista Gdx.app.
+ *
+ * En el juego va a Gdx.app.log como siempre; sin aplicación libGDX (herramientas
+ * headless, benchmarks) va a consola, o a ningún lado si se apaga.
+ */
+public final class RegistroMapa {
+
+    /** false = no se loguea nada. */
+    public static volatile boolean activo = true;
+
+    /** Volcados largos por piso (camino generado, conexiones). */
+    public static volatile boolean detallado = true;
+
+    private RegistroMapa() {}
+
+    public static void log(String tag, String mensaje) {
+        if (!activo) return;
+        if (Gdx.app != null) Gdx.app.log(tag, mensaje);
+        else System.out.println("[" + tag + "] " + mensaje);
+    }
+
+    static boolean volcados() {
+        return activo && detallado;
+    }
+}
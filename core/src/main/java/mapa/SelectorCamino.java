@@ -0,0 +1,110 @@
+package mapa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Elige el camino más largo de un recorrido SIN guardar todos los candidatos.
+ *
+ * - Lleva el largo máximo visto hasta ahora.
+ * - Entre los caminos de ese largo elige uno al azar con reservoir sampling (k = 1):
+ *   el i-ésimo empate reemplaza al elegido con probabilidad 1/i.
+ *
+ * El resultado es uniforme entre los más largos y la memoria es un solo buffer
+ * del tamaño del camino (se reutiliza, no se aloca por candidato).
+ */
+final class SelectorCamino {
+
+    private final Random rng;
+
+    private Habitacion[] elegido;
+    private int largo;
+    private long empates;
+    private long validos;
+
+    SelectorCamino(Random rng, int capacidad) {
+        this.rng = rng;
+        this.elegido = new Habitacion[Math.max(1, capacidad)];
+    }
+
+    /** Ofrece un camino válido (ya chequeado contra las restricciones del nivel). */
+    void ofrecer(List<Habitacion> camino) {
+        validos++;
+
+        int n = camino.size();
+        if (n < largo) return;
+
+        if (n > largo) {
+            largo = n;
+            empates = 1;
+            copiar(camino);
+            return;
+        }
+
+        empates++;
+        if (rng.nextInt((int) Math.min(empates, Integer.MAX_VALUE)) == 0) {
+            copiar(camino);
+        }
+    }
+
+    /**
+     * Suma lo que encontró otro selector (por ejemplo, otra rama del árbol en paralelo).
+     * Entre empates elige el de 'otro' con probabilidad empatesOtro / empatesTotales,
+     * así el resultado sigue siendo uniforme entre todos los caminos más largos.
+     */
+    void combinar(SelectorCamino otro, Random rngMezcla) {
+        validos += otro.validos;
+
+        if (otro.largo == 0 || otro.largo < largo) return;
+
+        if (otro.largo > largo) {
+            largo = otro.largo;
+            empates = otro.empates;
+            copiar(otro.elegido, otro.largo);
+            return;
+        }
+
+        long total = empates + otro.empates;
+        if (rngMezcla.nextDouble() * total < otro.empates) {
+            copiar(otro.elegido, otro.largo);
+        }
+        empates = total;
+    }
+
+    boolean hayCamino() {
+        return largo > 0;
+    }
+
+    /** Largo del camino elegido (0 si no hubo candidatos). */
+    int largo() {
+        return largo;
+    }
+
+    /** Cantidad de caminos con el largo máximo que se vieron. */
+    long empates() {
+        return empates;
+    }
+
+    /** Cantidad total de caminos válidos ofrecidos. */
+    long validos() {
+        return validos;
+    }
+
+    /** Copia del camino elegido. */
+    List<Habitacion> resultado() {
+        List<Habitacion> out = new ArrayList<>(largo);
+        for (int i = 0; i < largo; i++) out.add(elegido[i]);
+        return out;
+    }
+
+    private void copiar(Habitacion[] camino, int n) {
+        if (elegido.length < n) elegido = new Habitacion[n];
+        System.arraycopy(camino, 0, elegido, 0, n);
+    }
+
+    private void copiar(List<Habitacion> camino) {
+        if (elegido.length < camino.size()) elegido = new Habitacion[camino.size()];
+        for (int i = 0; i < camino.size(); i++) elegido[i] = camino.get(i);
+    }
+}
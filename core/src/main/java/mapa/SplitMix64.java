@@ -0,0 +1,25 @@
+package mapa;
+
+/**
+ * Mezcla de bits de SplitMix64, para derivar semillas (tareas, reintentos) y huellas
+ * (CachePisos) dentro del paquete. Mismo valor de entrada, mismo resultado: es determinista.
+ */
+final class SplitMix64 {
+
+    /** Incremento de SplitMix64 (parte fraccionaria de la razón áurea). */
+    static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private SplitMix64() {}
+
+    /** Finalizador: cada bit de z termina influyendo en todos los del resultado. */
+    static long finalizar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Un paso sobre 'base' con el valor 'v': finalizar(base + v * GAMMA). */
+    static long mezclar(long base, long v) {
+        return finalizar(base + v * GAMMA);
+    }
+}
@@ -0,0 +1,149 @@
+package mapa;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabla de adyacencia CONGELADA: a qué sala lleva cada puerta [sala][dirección].
+ *
+ * - Se guarda en un solo short[] plano: destinos[ordinalSala * 4 + ordinalDir] = ordinalDestino + 1
+ *   (0 = sin conexión).
+ * - Las vecinas de cada sala (sin repetir, en orden de Direccion) se calculan una vez al congelar,
+ *   así vecinas() no aloca.
+ * - Es inmutable: se puede compartir entre hilos sin sincronizar, y equals/hashCode/bytes
+ *   trabajan directo sobre el arreglo.
+ *
+ * Se arma con {@link Constructor} y {@link Constructor#congelar()}.
+ */
+public final class TablaAdyacencia {
+
+    private static final Habitacion[] SALAS = Habitacion.values();
+    private static final Direccion[] DIRS = Direccion.values();
+    private static final int N_DIRS = DIRS.length;
+
+    static {
+        if (SALAS.length >= Short.MAX_VALUE) {
+            throw new IllegalStateException("TablaAdyacencia soporta hasta " + (Short.MAX_VALUE - 1) + " habitaciones");
+        }
+    }
+
+    public static final TablaAdyacencia VACIA = new Constructor().congelar();
+
+    private final short[] destinos;
+    private final List<Habitacion>[] vecinas;
+    private final int hash;
+
+    @SuppressWarnings("unchecked")
+    private TablaAdyacencia(short[] destinos) {
+        this.destinos = destinos;
+        this.vecinas = (List<Habitacion>[]) new List[SALAS.length];
+
+        Habitacion[] buffer = new Habitacion[N_DIRS];
+        for (int s = 0; s < SALAS.length; s++) {
+            int n = 0;
+            for (int d = 0; d < N_DIRS; d++) {
+                int v = destinos[s * N_DIRS + d];
+                if (v == 0) continue;
+                Habitacion dest = SALAS[v - 1];
+                boolean repetida = false;
+                for (int i = 0; i < n; i++) if (buffer[i] == dest) { repetida = true; break; }
+                if (!repetida) buffer[n++] = dest;
+            }
+            vecinas[s] = List.of(Arrays.copyOf(buffer, n));
+        }
+
+        this.hash = Arrays.hashCode(destinos);
+    }
+
+    // =========================
+    // Lectura
+    // =========================
+
+    /** Destino de la puerta 'dir' de 'origen', o null si no hay conexión. */
+    public Habitacion destino(Habitacion origen, Direccion dir) {
+        if (origen == null || dir == null) return null;
+        int v = destinos[origen.ordinal() * N_DIRS + dir.ordinal()];
+        return (v == 0) ? null : SALAS[v - 1];
+    }
+
+    public boolean tieneConexion(Habitacion origen, Direccion dir) {
+        return origen != null && dir != null && destinos[origen.ordinal() * N_DIRS + dir.ordinal()] != 0;
+    }
+
+    /** Vecinas de la sala (sin repetir, en orden de Direccion). Lista inmutable precalculada. */
+    public List<Habitacion> vecinas(Habitacion h) {
+        return (h == null) ? List.of() : vecinas[h.ordinal()];
+    }
+
+    /** Copia cruda de la tabla (para guardar en disco o comparar fuera de acá). */
+    public short[] aArreglo() {
+        return destinos.clone();
+    }
+
+    /** Reconstruye una tabla desde {@link #aArreglo()}. */
+    public static TablaAdyacencia desdeArreglo(short[] datos) {
+        if (datos == null || datos.length != SALAS.length * N_DIRS) {
+            throw new IllegalArgumentException("Tabla de adyacencia con tamaño inválido");
+        }
+        for (short v : datos) {
+            if (v < 0 || v > SALAS.length) throw new IllegalArgumentException("Destino inválido en tabla: " + v);
+        }
+        return new TablaAdyacencia(datos.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TablaAdyacencia t)) return false;
+        return hash == t.hash && Arrays.equals(destinos, t.destinos);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Habitacion h : SALAS) {
+            if (vecinas[h.ordinal()].isEmpty()) continue;
+            sb.append(' ').append(h.nombreVisible).append(" ->");
+            for (Direccion d : DIRS) {
+                Habitacion dest = destino(h, d);
+                if (dest != null) sb.append(" [").append(d).append('→').append(dest.nombreVisible).append(']');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // =========================
+    // Construcción
+    // =========================
+
+    /** Versión mutable para armar la tabla. No es thread-safe; congelar() devuelve la inmutable. */
+    public static final class Constructor {
+
+        private final short[] destinos = new short[SALAS.length * N_DIRS];
+
+        public Constructor vincular(Habitacion origen, Direccion dir, Habitacion destino) {
+            if (origen == null || dir == null || destino == null) return this;
+            destinos[origen.ordinal() * N_DIRS + dir.ordinal()] = (short) (destino.ordinal() + 1);
+            return this;
+        }
+
+        public Habitacion destino(Habitacion origen, Direccion dir) {
+            int v = destinos[origen.ordinal() * N_DIRS + dir.ordinal()];
+            return (v == 0) ? null : SALAS[v - 1];
+        }
+
+        public boolean tieneConexion(Habitacion origen, Direccion dir) {
+            return destinos[origen.ordinal() * N_DIRS + dir.ordinal()] != 0;
+        }
+
+        public TablaAdyacencia congelar() {
+            return new TablaAdyacencia(destinos.clone());
+        }
+    }
+}
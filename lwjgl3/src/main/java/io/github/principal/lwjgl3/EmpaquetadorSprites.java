@@ -0,0 +1,71 @@
+package io.github.principal.lwjgl3;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Empaqueta las hojas de personajes en un solo atlas (paso de build, no corre en el juego).
+ *
+ * - Cada PNG de las carpetas de {@link #CARPETAS} entra ENTERO como una región llamada
+ *   "Carpeta/archivo" sin extensión (ej: "Enemigos/cyborg_quieto"). El corte en frames
+ *   lo sigue haciendo SpritesEntidad sobre la región.
+ * - Se agrega "blanco": 1x1 para PincelFormas, así las formas del mundo (puertas) también
+ *   salen de la misma textura que los sprites.
+ *
+ * Uso: ./gradlew :lwjgl3:empaquetarSprites   (escribe assets/atlas/personajes.atlas + png)
+ */
+public final class EmpaquetadorSprites {
+
+    static final String[] CARPETAS = {"Jugadores", "Enemigos"};
+    static final String NOMBRE_ATLAS = "personajes";
+
+    private EmpaquetadorSprites() {}
+
+    public static void main(String[] args) throws IOException {
+        File assets = new File(args.length > 0 ? args[0] : "assets");
+        File salida = new File(args.length > 1 ? args[1] : new File(assets, "atlas").getPath());
+
+        TexturePacker.Settings cfg = new TexturePacker.Settings();
+        cfg.maxWidth = 2048;
+        cfg.maxHeight = 2048;
+        // Pixel art: sin filtrado, y padding duplicado para que no sangren los bordes al escalar
+        cfg.filterMin = Texture.TextureFilter.Nearest;
+        cfg.filterMag = Texture.TextureFilter.Nearest;
+        cfg.paddingX = 2;
+        cfg.paddingY = 2;
+        cfg.duplicatePadding = true;
+        // Las hojas se cortan por tamaño de frame: no se pueden recortar ni rotar
+        cfg.stripWhitespaceX = false;
+        cfg.stripWhitespaceY = false;
+        cfg.rotation = false;
+
+        TexturePacker packer = new TexturePacker(cfg);
+        int regiones = 0;
+
+        for (String carpeta : CARPETAS) {
+            File[] pngs = new File(assets, carpeta).listFiles((d, n) -> n.toLowerCase().endsWith(".png"));
+            if (pngs == null) continue;
+            Arrays.sort(pngs);
+
+            for (File png : pngs) {
+                String nombre = png.getName().substring(0, png.getName().length() - 4);
+                packer.addImage(ImageIO.read(png), carpeta + "/" + nombre);
+                regiones++;
+            }
+        }
+
+        BufferedImage blanco = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        blanco.setRGB(0, 0, 0xFFFFFFFF);
+        packer.addImage(blanco, "blanco");
+
+        salida.mkdirs();
+        packer.pack(salida, NOMBRE_ATLAS);
+        System.out.println("Atlas " + NOMBRE_ATLAS + ": " + (regiones + 1) + " regiones en " + salida.getPath());
+    }
+}
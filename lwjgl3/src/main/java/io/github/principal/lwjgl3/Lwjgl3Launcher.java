@@ -12,7 +12,23 @@ public class Lwjgl3Launcher {
     }
 
     private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new Principal(), getDefaultConfiguration());
+        return new Lwjgl3Application(new Principal(leerSemilla()), getDefaultConfiguration());
+    }
+
+    /**
+     * -Dsemilla=N repite una run (mismos pisos; con la cache de pisos en disco, cargan al instante).
+     * Va como propiedad de la JVM y no como argumento: StartupHelper relanza la JVM en macOS
+     * y solo conserva los argumentos de la JVM. Con Gradle: ./gradlew :lwjgl3:run -Psemilla=N
+     */
+    private static Long leerSemilla() {
+        String s = System.getProperty("semilla");
+        if (s == null || s.isBlank()) return null;
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("semilla inválida (" + s + "), se usa una al azar");
+            return null;
+        }
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {